@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/*
+    Small JMH-style harness: warmup + measured iterations of a fixed time each,
+    average ns/op with standard deviation, optional JSON export for tracking runs.
+    No dependencies, so it compiles together with the Day-N sources (see run.sh).
+
+    Options:
+      --filter REGEX     only benchmarks whose "group.name" matches
+      --json FILE        write results as a JSON array
+      --warmup N         warmup iterations (default 3)
+      --iterations N     measured iterations (default 5)
+      --time MS          length of one iteration (default 1000)
+      --full             also run the largest sizes (slow, needs memory)
+*/
+public class BenchmarkRunner {
+
+    public interface Op {
+        long run() throws Exception;   // Return something derived from the work so it is not optimised away
+    }
+
+    public interface Setup {
+        Op create() throws Exception;  // Builds inputs once; not measured
+    }
+
+    static class Case {
+        final String group, name, params;
+        final Setup setup;
+
+        Case(String group, String name, String params, Setup setup) {
+            this.group = group;
+            this.name = name;
+            this.params = params;
+            this.setup = setup;
+        }
+    }
+
+    static class Result {
+        Case c;
+        double meanNs, stdevNs, minNs;
+        long ops;
+    }
+
+    public static boolean full;       // Include the largest sizes
+    static volatile long sink;        // Blackhole for Op results
+
+    private final List<Case> cases = new ArrayList<>();
+    private int warmup = 3, iterations = 5;
+    private long iterationMs = 1000;
+
+    public void add(String group, String name, String params, Setup setup) {
+        cases.add(new Case(group, name, params, setup));
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        String filter = null, json = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--filter": filter = args[++i]; break;
+                case "--json": json = args[++i]; break;
+                case "--warmup": runner.warmup = Integer.parseInt(args[++i]); break;
+                case "--iterations": runner.iterations = Integer.parseInt(args[++i]); break;
+                case "--time": runner.iterationMs = Long.parseLong(args[++i]); break;
+                case "--full": full = true; break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        FlowBenchmarks.register(runner);
+        NfaBenchmarks.register(runner);
+        RegexBenchmarks.register(runner);
+        QueryBenchmarks.register(runner);
+
+        Pattern pattern = filter == null ? null : Pattern.compile(filter);
+        String jsonFile = json;
+        // Big stack: the NFA simulator recurses once per input symbol
+        Thread t = new Thread(null, () -> {
+            try {
+                List<Result> results = runner.runAll(pattern);
+                if (jsonFile != null) writeJson(results, jsonFile);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, "benchmark", 1L << 30);
+        t.start();
+        t.join();
+    }
+
+    private List<Result> runAll(Pattern pattern) throws Exception {
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-40s %-28s %14s %12s%n", "Benchmark", "Params", "ns/op", "+-");
+        for (Case c : cases) {
+            if (pattern != null && !pattern.matcher(c.group + "." + c.name).find()) continue;
+            Result r = measure(c);
+            results.add(r);
+            System.out.printf(Locale.ROOT, "%-40s %-28s %14.1f %12.1f%n", c.group + "." + c.name, c.params, r.meanNs, r.stdevNs);
+        }
+        return results;
+    }
+
+    private Result measure(Case c) throws Exception {
+        Op op = c.setup.create();
+        for (int i = 0; i < warmup; i++) iteration(op);
+
+        double[] nsPerOp = new double[iterations];
+        long totalOps = 0;
+        for (int i = 0; i < iterations; i++) {
+            long[] timing = iteration(op);
+            nsPerOp[i] = (double) timing[0] / timing[1];
+            totalOps += timing[1];
+        }
+
+        Result r = new Result();
+        r.c = c;
+        r.ops = totalOps;
+        r.minNs = Double.MAX_VALUE;
+        for (double v : nsPerOp) {
+            r.meanNs += v / iterations;
+            r.minNs = Math.min(r.minNs, v);
+        }
+        for (double v : nsPerOp) r.stdevNs += (v - r.meanNs) * (v - r.meanNs);
+        r.stdevNs = iterations > 1 ? Math.sqrt(r.stdevNs / (iterations - 1)) : 0;
+        return r;
+    }
+
+    // Runs op until iterationMs has passed: {elapsed ns, ops}
+    private long[] iteration(Op op) throws Exception {
+        long limit = iterationMs * 1_000_000L;
+        long start = System.nanoTime(), elapsed, ops = 0, acc = 0;
+        do {
+            acc += op.run();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < limit);
+        sink += acc;
+        return new long[] { elapsed, ops };
+    }
+
+    private static void writeJson(List<Result> results, String file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file)))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                out.printf(Locale.ROOT,
+                        "  {\"benchmark\": \"%s.%s\", \"params\": \"%s\", \"unit\": \"ns/op\", \"score\": %.3f, \"error\": %.3f, \"min\": %.3f, \"ops\": %d}%s%n",
+                        r.c.group, r.c.name, r.c.params, r.meanNs, r.stdevNs, r.minNs, r.ops, i + 1 < results.size() ? "," : "");
+            }
+            out.println("]");
+        }
+        System.out.println("Results written to " + file);
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Random;
+
+/*
+    Max flow on generated graphs: random (m = 5n), grid (4-neighbour) and layered
+    (full bipartite links between consecutive layers), each with every algorithm.
+    One op = reset the flow + solve from scratch on the same residual graph.
+    "recorded" solves with a FlowEventLog attached and checks the log against the result.
+*/
+public class FlowBenchmarks {
+
+    public static void register(BenchmarkRunner runner) {
+        int[] sizes = BenchmarkRunner.full ? new int[] { 1_000, 10_000, 100_000 } : new int[] { 1_000, 10_000 };
+        for (int n : sizes) {
+            for (FlowAlgorithm algorithm : FlowAlgorithm.values()) {
+                String params = "n=" + n + " alg=" + algorithm;
+                runner.add("flow", "random", params, () -> op(random(n, 5 * n, 1), algorithm));
+                runner.add("flow", "grid", params, () -> op(grid((int) Math.sqrt(n), 2), algorithm));
+                runner.add("flow", "layered", params, () -> op(layered(10, n / 10, 3), algorithm));
+                if (algorithm != FlowAlgorithm.PUSH_RELABEL) {
+                    runner.add("flow", "recorded", params, () -> recorded(layered(10, n / 10, 3), algorithm));
+                }
+            }
+        }
+    }
+
+    private static BenchmarkRunner.Op op(ResidualGraph g, FlowAlgorithm algorithm) {
+        MaxFlowSolver solver = algorithm.create(null);
+        int s = 0, t = g.n - 1;
+        return () -> {
+            g.resetFlow();
+            return solver.solve(g, s, t).maxFlow;
+        };
+    }
+
+    // Fails unless the recording grew past its initial arrays and ends at the solver's flow
+    private static BenchmarkRunner.Op recorded(ResidualGraph g, FlowAlgorithm algorithm) throws Exception {
+        int s = 0, t = g.n - 1;
+        BenchmarkRunner.Op op = () -> {
+            g.resetFlow();
+            FlowEventLog log = new FlowEventLog();
+            long flow = algorithm.create(log).solve(g, s, t).maxFlow;
+            int steps = log.steps();
+            if (steps <= 64 || log.totalAfter(steps - 1) != flow) {
+                throw new IllegalStateException("recorded " + steps + " steps for flow " + flow);
+            }
+            return steps;
+        };
+        op.run();
+        return op;
+    }
+
+    // Node 0 is the source, node n - 1 the sink
+    static ResidualGraph random(int n, int m, long seed) {
+        Random r = new Random(seed);
+        FlowNetwork net = new FlowNetwork();
+        net.addNodes(n);
+        for (int i = 0; i < m; i++) {
+            int u = r.nextInt(n), v = r.nextInt(n);
+            if (u != v) net.addEdge(u, v, 1 + r.nextInt(100));
+        }
+        return net.build();
+    }
+
+    // side x side grid, edges to the right and down neighbours, corner to corner
+    static ResidualGraph grid(int side, long seed) {
+        Random r = new Random(seed);
+        FlowNetwork net = new FlowNetwork();
+        net.addNodes(side * side);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int u = row * side + col;
+                if (col + 1 < side) net.addEdge(u, u + 1, 1 + r.nextInt(100));
+                if (row + 1 < side) net.addEdge(u, u + side, 1 + r.nextInt(100));
+            }
+        }
+        return net.build();
+    }
+
+    // Source -> layer 0 -> ... -> layer L-1 -> sink, each node linked to 4 random nodes of the next layer
+    static ResidualGraph layered(int layers, int width, long seed) {
+        Random r = new Random(seed);
+        FlowNetwork net = new FlowNetwork();
+        int n = layers * width + 2;
+        net.addNodes(n);
+        int sink = n - 1;
+        for (int i = 0; i < width; i++) {
+            net.addEdge(0, 1 + i, 1 + r.nextInt(100));
+            net.addEdge(1 + (layers - 1) * width + i, sink, 1 + r.nextInt(100));
+        }
+        for (int l = 0; l + 1 < layers; l++) {
+            for (int i = 0; i < width; i++) {
+                int u = 1 + l * width + i;
+                for (int k = 0; k < 4; k++) net.addEdge(u, 1 + (l + 1) * width + r.nextInt(width), 1 + r.nextInt(100));
+            }
+        }
+        return net.build();
+    }
+}
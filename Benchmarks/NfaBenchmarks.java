@@ -0,0 +1,140 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/*
+    NFA acceptance over long random inputs on a random automaton.
+    The simulator prints a trace line per step, so System.out is muted while measuring
+    (the printing would otherwise be all that gets measured).
+    The backtracking simulator is exponential on rejected inputs, so the final states are
+    chosen such that the first path it explores accepts: this measures its per-symbol cost.
+*/
+public class NfaBenchmarks {
+
+    private static final PrintStream NULL_OUT = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    public static void register(BenchmarkRunner runner) {
+        int[] lengths = BenchmarkRunner.full ? new int[] { 1_000, 10_000, 100_000 } : new int[] { 1_000, 10_000 };
+        for (int states : new int[] { 8, 32 }) {
+            for (int len : lengths) {
+                runner.add("nfa", "simulate", "states=" + states + " len=" + len, () -> op(states, len));
+                runner.add("nfa", "memo", "states=" + states + " len=" + len, () -> memoOp(states, len));
+                runner.add("nfa", "set", "states=" + states + " len=" + len, () -> setOp(states, len));
+                runner.add("nfa", "dfa", "states=" + states + " len=" + len, () -> dfaOp(states, len));
+                runner.add("nfa", "min-dfa", "states=" + states + " len=" + len, () -> minDfaOp(states, len));
+            }
+        }
+        // Nothing accepts: the plain trace tries every path, the memoised one each (state, position) once
+        runner.add("nfa", "simulate", "states=8 len=24 rejected", () -> op(rejecting(8, 24)));
+        runner.add("nfa", "memo", "states=8 len=24 rejected", () -> memoOp(rejecting(8, 24)));
+        runner.add("nfa", "memo", "states=8 len=10000 rejected", () -> memoOp(rejecting(8, 10_000)));
+    }
+
+    private static BenchmarkRunner.Op op(int stateCount, int len) {
+        return op(load(stateCount, len));
+    }
+
+    private static BenchmarkRunner.Op op(Workload w) {
+        int[] symbols = w.nfa.tokenize(w.input);
+        return () -> {
+            PrintStream out = System.out;
+            System.setOut(NULL_OUT);
+            try {
+                return NFASimulator.simulate(w.nfa, w.nfa.start, symbols, 0) ? 1 : 0;
+            } finally {
+                System.setOut(out);
+            }
+        };
+    }
+
+    // Memoised iterative trace (failed (state, position) pairs skipped), same muted output
+    private static BenchmarkRunner.Op memoOp(int stateCount, int len) {
+        return memoOp(load(stateCount, len));
+    }
+
+    private static BenchmarkRunner.Op memoOp(Workload w) {
+        int[] symbols = w.nfa.tokenize(w.input);
+        return () -> {
+            PrintStream out = System.out;
+            System.setOut(NULL_OUT);
+            try {
+                return NFASimulator.simulateMemo(w.nfa, symbols) ? 1 : 0;
+            } finally {
+                System.setOut(out);
+            }
+        };
+    }
+
+    // Same automaton and input through the bitset state-set simulation
+    private static BenchmarkRunner.Op setOp(int stateCount, int len) {
+        Workload w = load(stateCount, len);
+        return () -> w.nfa.accepts(w.input) ? 1 : 0;
+    }
+
+    // Same automaton and input through the lazy subset-construction DFA
+    private static BenchmarkRunner.Op dfaOp(int stateCount, int len) {
+        Workload w = load(stateCount, len);
+        Dfa dfa = new Dfa(w.nfa, NFASimulator.DFA_STATE_CAP);
+        return () -> dfa.accepts(w.input) ? 1 : 0;
+    }
+
+    // Whole DFA built up front and minimised (Hopcroft), matched through the flat table
+    private static BenchmarkRunner.Op minDfaOp(int stateCount, int len) {
+        Workload w = load(stateCount, len);
+        DfaTable table = Dfa.toTable(w.nfa, NFASimulator.DFA_STATE_CAP).minimize();
+        return () -> table.accepts(w.input) ? 1 : 0;
+    }
+
+    private static final class Workload {
+        final Nfa nfa;
+        final String input;
+
+        Workload(Nfa nfa, String input) {
+            this.nfa = nfa;
+            this.input = input;
+        }
+    }
+
+    // Same automaton without final states
+    private static Workload rejecting(int stateCount, int len) {
+        Workload w = load(stateCount, len);
+        Nfa nfa = w.nfa;
+        return new Workload(new Nfa(nfa.stateNames, nfa.symbolNames, nfa.delta, nfa.epsilon, nfa.start, new boolean[stateCount]), w.input);
+    }
+
+    // Random automaton and an input it accepts
+    private static Workload load(int stateCount, int len) {
+        Random r = new Random(7);
+        // States 'A'.., symbols '0' / '1', every state has 1-2 successors per symbol
+        String[] states = new String[stateCount];
+        for (int i = 0; i < stateCount; i++) states[i] = String.valueOf((char) ('A' + i));
+        int[][][] delta = new int[stateCount][2][];
+        for (int i = 0; i < stateCount; i++) {
+            for (int j = 0; j < 2; j++) {
+                int out = 1 + r.nextInt(2);
+                delta[i][j] = new int[out];
+                for (int k = 0; k < out; k++) delta[i][j][k] = r.nextInt(stateCount);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) sb.append(r.nextBoolean() ? '1' : '0');
+        String input = sb.toString();
+
+        // Where the first explored path ends (always the first successor) must be final
+        int state = 0;
+        for (int i = 0; i < len; i++) state = delta[state][input.charAt(i) - '0'][0];
+        boolean[] accepting = new boolean[stateCount];
+        accepting[state] = true;
+        accepting[1] = true;
+        return new Workload(new Nfa(states, new String[] { "0", "1" }, delta, new int[stateCount][], 0, accepting), input);
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/*
+    CSV query evaluation (ClientHandler.evaluateConditions) over synthetic students.csv files.
+    "scan" = what the server does per query: read + split every line + evaluate (no limit).
+    "evaluate" = the condition check alone on rows already split in memory.
+*/
+public class QueryBenchmarks {
+
+    private static final String HEADER = "Name,FatherName,Enrollment,Faculty,Residence,Course,Year,Phone,Email,Gender,Branch,CGPA";
+    private static final String[] BRANCHES = { "CSE", "IT", "ECE", "ME", "CE", "EE" };
+    private static final String[] COURSES = { "BTech", "MTech", "PhD" };
+    private static final String[] YEARS = { "1st", "2nd", "3rd", "4th" };
+
+    private static final String[][] QUERIES = {
+        // name, condition, advanced search
+        { "exact-and", "Branch=CSE AND Year=3rd", "false" },
+        { "in-or", "Branch=CSE, IT OR Gender=Female", "false" },
+        { "advanced-range", "CGPA>=8.5 AND Course=Tech", "true" },
+    };
+
+    private static Path dir;
+
+    public static void register(BenchmarkRunner runner) {
+        int[] rows = BenchmarkRunner.full ? new int[] { 10_000, 100_000, 1_000_000, 10_000_000 } : new int[] { 10_000, 100_000, 1_000_000 };
+        for (String[] q : QUERIES) {
+            for (int n : rows) {
+                runner.add("query", "scan", "rows=" + n + " q=" + q[0], () -> scan(n, q[1], Boolean.parseBoolean(q[2])));
+            }
+            for (int n : new int[] { 10_000, 100_000 }) {
+                runner.add("query", "evaluate", "rows=" + n + " q=" + q[0], () -> evaluate(n, q[1], Boolean.parseBoolean(q[2])));
+            }
+        }
+    }
+
+    private static BenchmarkRunner.Op scan(int rows, String condition, boolean advanced) throws IOException {
+        Path file = csv(rows);
+        ClientHandler handler = new ClientHandler(null, 0);
+        return () -> {
+            Server.isAdvancedSearch = advanced;
+            long found = 0;
+            try (BufferedReader in = Files.newBufferedReader(file)) {
+                String[] headers = in.readLine().split(",");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (handler.evaluateConditions(headers, line.split(","), condition)) found++;
+                }
+            }
+            return found;
+        };
+    }
+
+    private static BenchmarkRunner.Op evaluate(int rows, String condition, boolean advanced) throws IOException {
+        String[][] data = new String[rows][];
+        String[] headers;
+        try (BufferedReader in = Files.newBufferedReader(csv(rows))) {
+            headers = in.readLine().split(",");
+            for (int i = 0; i < rows; i++) data[i] = in.readLine().split(",");
+        }
+        ClientHandler handler = new ClientHandler(null, 0);
+        return () -> {
+            Server.isAdvancedSearch = advanced;
+            long found = 0;
+            for (String[] row : data) {
+                if (handler.evaluateConditions(headers, row, condition)) found++;
+            }
+            return found;
+        };
+    }
+
+    // Generated once per size into a temp directory (deleted on exit)
+    private static synchronized Path csv(int rows) throws IOException {
+        if (dir == null) {
+            dir = Files.createTempDirectory("students-bench");
+            dir.toFile().deleteOnExit();
+        }
+        Path file = dir.resolve("students-" + rows + ".csv");
+        if (Files.exists(file)) return file;
+
+        Random r = new Random(rows);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write(HEADER);
+            out.newLine();
+            for (int i = 0; i < rows; i++) {
+                boolean female = r.nextBoolean();
+                out.write("Student " + i + ",Parent " + i + ",GM" + (100000 + i) + ",23COBEA" + r.nextInt(1000)
+                        + "," + (r.nextBoolean() ? "Hosteller" : "DayScholar") + "," + COURSES[r.nextInt(COURSES.length)]
+                        + "," + YEARS[r.nextInt(YEARS.length)] + "," + (6000000000L + r.nextInt(1_000_000_000))
+                        + ",student" + i + "@gmail.com," + (female ? "Female" : "Male") + "," + BRANCHES[r.nextInt(BRANCHES.length)]
+                        + "," + (50 + r.nextInt(51)) / 10.0);
+                out.newLine();
+            }
+        }
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
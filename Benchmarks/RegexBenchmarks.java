@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+    Regex matching: java.util.regex (backtracking) against the Thompson NFA from Regex.compile
+    run through the state-set simulation, the lazy DFA and the minimised DFA table.
+    The pathological patterns make backtracking exponential on a rejected input a^n / x^n;
+    the last one is an ordinary token pattern for reference.
+    "compile" is the cost of Regex.compile + minimised table, paid once per pattern.
+    "separate" / "union" classify 1000 log tokens against N patterns: one minimised DFA
+    scan per pattern, against one pass through the NfaUnion of all of them.
+    "dfa-file" compares start-up with a compiled (0|1)*1(0|1){m} (2^(m+1) DFA states):
+    building the minimised table from the regex against mapping a saved .dfa file,
+    and the per-string cost of the heap table against the mapped one.
+    "stream" finds every match of a pattern in a log of `lines` lines: java.util.regex
+    find() over the whole String, against StreamMatcher fed 64K-char chunks of it and
+    StreamMatcher over the log file (memory-mapped, UTF-8 decoded on the fly).
+    java.util.regex skips ahead on the literal prefix (Boyer-Moore), the DFA reads every
+    char; what StreamMatcher buys is that the log never has to fit in memory.
+*/
+public class RegexBenchmarks {
+
+    private static final String[][] PATTERNS = {
+        // name, pattern, repeated input char, last input char
+        { "(a|a)*b", "(a|a)*b", "a", "a" },
+        { "(a*)*b", "(a*)*b", "a", "a" },
+        { "(x+x+)+y", "(x+x+)+y", "x", "x" },
+        { "token", "[A-Za-z_][A-Za-z0-9_]*=\\d{1,6}(\\.\\d+)?", "k", "=" },
+    };
+
+    public static void register(BenchmarkRunner runner) {
+        int[] sizes = BenchmarkRunner.full ? new int[] { 16, 20, 24, 28 } : new int[] { 16, 20, 24 };
+        for (String[] p : PATTERNS) {
+            for (int n : sizes) {
+                String params = "p=" + p[0] + " n=" + n;
+                runner.add("regex", "java", params, () -> javaOp(p, n));
+                runner.add("regex", "set", params, () -> setOp(p, n));
+                runner.add("regex", "dfa", params, () -> dfaOp(p, n));
+                runner.add("regex", "min-dfa", params, () -> minDfaOp(p, n));
+            }
+            runner.add("regex", "compile", "p=" + p[0], () -> () -> Dfa.toTable(Regex.compile(p[1]), NFASimulator.DFA_STATE_CAP).minimize().states);
+        }
+        for (int n : BenchmarkRunner.full ? new int[] { 10, 100, 500 } : new int[] { 10, 100 }) {
+            runner.add("regex", "separate", "patterns=" + n + " tokens=1000", () -> separateOp(n));
+            runner.add("regex", "union", "patterns=" + n + " tokens=1000", () -> unionOp(n));
+        }
+        registerDfaFile(runner);
+        registerStream(runner);
+    }
+
+    private static final String STREAM_PATTERN = "level=ERROR user=u99\\d";
+
+    private static void registerStream(BenchmarkRunner runner) {
+        for (int lines : BenchmarkRunner.full ? new int[] { 10_000, 1_000_000 } : new int[] { 10_000, 100_000 }) {
+            String params = "lines=" + lines;
+            runner.add("stream", "java-find", params, () -> {
+                String log = log(lines);
+                Pattern pattern = Pattern.compile(STREAM_PATTERN);
+                return () -> {
+                    long hits = 0;
+                    for (Matcher m = pattern.matcher(log); m.find(); ) hits++;
+                    return hits;
+                };
+            });
+            runner.add("stream", "chars", params, () -> {
+                String log = log(lines);
+                long[] hits = new long[1];
+                StreamMatcher matcher = new StreamMatcher(Regex.compile(STREAM_PATTERN), true, NFASimulator.DFA_STATE_CAP, end -> hits[0]++);
+                return () -> {
+                    matcher.reset();
+                    for (int i = 0; i < log.length(); i += 1 << 16)
+                        matcher.feed(CharBuffer.wrap(log, i, Math.min(log.length(), i + (1 << 16))));
+                    matcher.finish();
+                    return hits[0];
+                };
+            });
+            runner.add("stream", "file", params, () -> {
+                Path file = Files.createTempFile("bench", ".log");
+                file.toFile().deleteOnExit();
+                Files.write(file, log(lines).getBytes(StandardCharsets.UTF_8));
+                long[] hits = new long[1];
+                StreamMatcher matcher = new StreamMatcher(Regex.compile(STREAM_PATTERN), true, NFASimulator.DFA_STATE_CAP, end -> hits[0]++);
+                return () -> {
+                    matcher.reset();
+                    try (FileChannel ch = FileChannel.open(file)) {
+                        matcher.feed(ch);
+                    }
+                    matcher.finish();
+                    return hits[0];
+                };
+            });
+        }
+    }
+
+    // Log lines "ts=<i> level=<INFO|WARN|ERROR> user=u<0..999>"
+    private static String log(int lines) {
+        Random r = new Random(17);
+        String[] levels = { "INFO", "WARN", "ERROR" };
+        StringBuilder sb = new StringBuilder(lines * 32);
+        for (int i = 0; i < lines; i++)
+            sb.append("ts=").append(i).append(" level=").append(levels[r.nextInt(3)]).append(" user=u").append(r.nextInt(1000)).append('\n');
+        return sb.toString();
+    }
+
+    private static void registerDfaFile(BenchmarkRunner runner) {
+        for (int m : BenchmarkRunner.full ? new int[] { 11, 15, 19 } : new int[] { 11, 15 }) {
+            String pattern = "(0|1)*1(0|1){" + m + "}";
+            String params = "states=" + (1 << (m + 1));
+            runner.add("dfa-file", "build", params, () -> () -> Dfa.toTable(Regex.compile(pattern), 1 << 21).minimize().states);
+            runner.add("dfa-file", "map", params, () -> {
+                Path file = dfaFile(pattern);
+                return () -> MappedDfa.map(file).states;
+            });
+            runner.add("dfa-file", "match-table", params, () -> {
+                DfaTable table = Dfa.toTable(Regex.compile(pattern), 1 << 21).minimize();
+                String[] inputs = binaryInputs();
+                return () -> {
+                    long hits = 0;
+                    for (String s : inputs) if (table.accepts(s)) hits++;
+                    return hits;
+                };
+            });
+            runner.add("dfa-file", "match-mapped", params, () -> {
+                MappedDfa dfa = MappedDfa.map(dfaFile(pattern));
+                String[] inputs = binaryInputs();
+                return () -> {
+                    long hits = 0;
+                    for (String s : inputs) if (dfa.accepts(s)) hits++;
+                    return hits;
+                };
+            });
+        }
+    }
+
+    private static Path dfaFile(String pattern) throws IOException {
+        Path file = Files.createTempFile("bench", ".dfa");
+        file.toFile().deleteOnExit();
+        MappedDfa.write(Dfa.toTable(Regex.compile(pattern), 1 << 21).minimize(), file);
+        return file;
+    }
+
+    // 1000 random 0/1 strings of length 64
+    private static String[] binaryInputs() {
+        Random r = new Random(13);
+        String[] inputs = new String[1000];
+        for (int i = 0; i < inputs.length; i++) {
+            StringBuilder sb = new StringBuilder(64);
+            for (int j = 0; j < 64; j++) sb.append(r.nextBoolean() ? '1' : '0');
+            inputs[i] = sb.toString();
+        }
+        return inputs;
+    }
+
+    // N token patterns: key<i>=<value>, the value shape varying with i
+    private static String[] tokenPatterns(int n) {
+        String[] values = { "\\d+", "[a-z]+", "[0-9a-f]{8}", "(true|false)", "\\d+\\.\\d+", "[A-Z][a-z]*(_[A-Z][a-z]*)*" };
+        String[] patterns = new String[n];
+        for (int i = 0; i < n; i++) patterns[i] = "(key" + i + "|k" + i + ")=" + values[i % values.length];
+        return patterns;
+    }
+
+    private static String[] tokens(int n) {
+        Random r = new Random(11);
+        String[] values = { "42", "abc", "deadbeef", "true", "3.14", "Foo_Bar", "x y" };
+        String[] tokens = new String[1000];
+        for (int i = 0; i < tokens.length; i++) tokens[i] = "key" + r.nextInt(n + n / 10 + 1) + "=" + values[r.nextInt(values.length)];
+        return tokens;
+    }
+
+    private static BenchmarkRunner.Op separateOp(int n) {
+        String[] patterns = tokenPatterns(n);
+        DfaTable[] tables = new DfaTable[n];
+        for (int i = 0; i < n; i++) tables[i] = Dfa.toTable(Regex.compile(patterns[i]), NFASimulator.DFA_STATE_CAP).minimize();
+        String[] tokens = tokens(n);
+        return () -> {
+            long hits = 0;
+            for (String t : tokens) for (DfaTable table : tables) if (table.accepts(t)) hits++;
+            return hits;
+        };
+    }
+
+    private static BenchmarkRunner.Op unionOp(int n) {
+        String[] patterns = tokenPatterns(n);
+        Nfa[] parts = new Nfa[n];
+        for (int i = 0; i < n; i++) parts[i] = Regex.compile(patterns[i]);
+        NfaUnion.Matcher matcher = new NfaUnion(parts).matcher(NFASimulator.DFA_STATE_CAP);
+        String[] tokens = tokens(n);
+        return () -> {
+            long hits = 0;
+            for (String t : tokens) hits += matcher.matches(t).length;
+            return hits;
+        };
+    }
+
+    private static String input(String[] p, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n - 1; i++) sb.append(p[2]);
+        return sb.append(p[3]).toString();
+    }
+
+    private static BenchmarkRunner.Op javaOp(String[] p, int n) {
+        Pattern pattern = Pattern.compile(p[1]);
+        String s = input(p, n);
+        return () -> pattern.matcher(s).matches() ? 1 : 0;
+    }
+
+    private static BenchmarkRunner.Op setOp(String[] p, int n) {
+        Nfa nfa = Regex.compile(p[1]);
+        String s = input(p, n);
+        return () -> nfa.accepts(s) ? 1 : 0;
+    }
+
+    private static BenchmarkRunner.Op dfaOp(String[] p, int n) {
+        Dfa dfa = new Dfa(Regex.compile(p[1]), NFASimulator.DFA_STATE_CAP);
+        String s = input(p, n);
+        return () -> dfa.accepts(s) ? 1 : 0;
+    }
+
+    private static BenchmarkRunner.Op minDfaOp(String[] p, int n) {
+        DfaTable table = Dfa.toTable(Regex.compile(p[1]), NFASimulator.DFA_STATE_CAP).minimize();
+        String s = input(p, n);
+        return () -> table.accepts(s) ? 1 : 0;
+    }
+}
@@ -0,0 +1,11 @@
+#!/bin/bash
+# Compiles the benchmark harness together with the sources it measures and runs it.
+# Usage: ./run.sh [--filter REGEX] [--json results.json] [--warmup N] [--iterations N] [--time MS] [--full]
+# Example: ./run.sh --filter 'flow\.' --json flow-$(date +%F).json
+
+cd "$(dirname "$0")"
+OUT=${TMPDIR:-/tmp}/benchmarks-build
+rm -rf $OUT && mkdir -p $OUT
+
+javac -encoding UTF-8 -d $OUT ../Day-1/*.java ../Day-5/*.java ../Day-7/*.java *.java || exit 1
+java -Xss1g -Xmx4g -cp $OUT BenchmarkRunner "$@"
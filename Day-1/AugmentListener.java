@@ -0,0 +1,7 @@
+// Optional hook for the GUI. The solver never copies the path when no listener is set.
+// pathArcs is a reused buffer: only valid during the callback.
+public interface AugmentListener {
+    // pathArcs[0 .. len - 1] runs sink -> source
+    void onPathFound(int[] pathArcs, int len, long pathFlow);          // Before the flow is applied
+    void onAugmented(int[] pathArcs, int len, long pathFlow, long totalFlow);
+}
@@ -0,0 +1,86 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+    Max flow for many (source, sink) pairs on one topology.
+    The CSR arrays and capacities are shared read-only; a leaf task takes a spare copy
+    of the flow arrays (ResidualGraph.withFreshFlow) for its pairs and hands it back,
+    so there are at most as many copies as running tasks and none outlive the call.
+*/
+public class BatchMaxFlow {
+    private static final int SPLIT_THRESHOLD = 4; // Pairs per leaf task
+
+    // result[i] = max flow from sources[i] to sinks[i]
+    public static long[] solvePairs(ResidualGraph topology, int[] sources, int[] sinks,
+                                    FlowAlgorithm algorithm, ForkJoinPool pool) {
+        if (sources.length != sinks.length) throw new IllegalArgumentException("sources and sinks differ in length");
+        long[] result = new long[sources.length];
+        pool.invoke(new PairTask(topology, new ConcurrentLinkedQueue<>(), sources, sinks, algorithm, result, 0, sources.length));
+        return result;
+    }
+
+    public static long[] solvePairs(ResidualGraph topology, int[] sources, int[] sinks, FlowAlgorithm algorithm) {
+        return solvePairs(topology, sources, sinks, algorithm, ForkJoinPool.commonPool());
+    }
+
+    // matrix[i][j] = max flow from sources[i] to sinks[j]
+    public static long[][] solveMatrix(ResidualGraph topology, int[] sources, int[] sinks, FlowAlgorithm algorithm) {
+        int k = sources.length * sinks.length;
+        int[] s = new int[k], t = new int[k];
+        for (int i = 0; i < sources.length; i++) {
+            for (int j = 0; j < sinks.length; j++) {
+                s[i * sinks.length + j] = sources[i];
+                t[i * sinks.length + j] = sinks[j];
+            }
+        }
+        long[] flat = solvePairs(topology, s, t, algorithm);
+        long[][] matrix = new long[sources.length][sinks.length];
+        for (int i = 0; i < sources.length; i++) System.arraycopy(flat, i * sinks.length, matrix[i], 0, sinks.length);
+        return matrix;
+    }
+
+    private static class PairTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ResidualGraph topology;
+        private final Queue<ResidualGraph> spare;   // Flow copies not in use
+        private final int[] sources, sinks;
+        private final FlowAlgorithm algorithm;
+        private final long[] result;
+        private final int from, to;
+
+        PairTask(ResidualGraph topology, Queue<ResidualGraph> spare, int[] sources, int[] sinks,
+                 FlowAlgorithm algorithm, long[] result, int from, int to) {
+            this.topology = topology;
+            this.spare = spare;
+            this.sources = sources;
+            this.sinks = sinks;
+            this.algorithm = algorithm;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                ResidualGraph g = spare.poll();
+                if (g == null) g = topology.withFreshFlow();
+                try {
+                    for (int i = from; i < to; i++) {
+                        g.resetFlow();
+                        result[i] = algorithm.create(null).solve(g, sources[i], sinks[i]).maxFlow;
+                    }
+                } finally {
+                    spare.offer(g);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PairTask(topology, spare, sources, sinks, algorithm, result, from, mid),
+                      new PairTask(topology, spare, sources, sinks, algorithm, result, mid, to));
+        }
+    }
+}
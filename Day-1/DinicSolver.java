@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+// Dinic: BFS level graph + blocking flow with current-arc pointers, O(V^2 * E)
+public class DinicSolver implements MaxFlowSolver {
+    private final AugmentListener listener;
+
+    public DinicSolver() {
+        this(null);
+    }
+
+    public DinicSolver(AugmentListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public FlowResult solve(ResidualGraph g, int s, int t) {
+        if (s == t) return FlowResult.of(g, 0, 0);
+        int[] level = new int[g.n];
+        int[] queue = new int[g.n];
+        int[] cur = new int[g.n];
+        int[] path = new int[g.n];       // Arcs of the DFS stack, source -> current node
+        int[] reversed = listener != null ? new int[g.n] : null; // Listener copy, sink -> source
+        long maxFlow = g.flowValue(s);
+        int augmentations = 0;
+
+        while (buildLevels(g, s, t, level, queue)) {
+            System.arraycopy(g.offsets, 0, cur, 0, g.n);
+
+            // Iterative DFS (no recursion depth limit on long paths)
+            int u = s, len = 0;
+            while (true) {
+                if (u == t) {
+                    long pathFlow = Long.MAX_VALUE;
+                    for (int i = 0; i < len; i++) pathFlow = Math.min(pathFlow, g.residual(path[i]));
+
+                    if (listener != null) {
+                        for (int i = 0; i < len; i++) reversed[i] = path[len - 1 - i];
+                        listener.onPathFound(reversed, len, pathFlow);
+                    }
+
+                    int firstSaturated = -1;
+                    for (int i = 0; i < len; i++) {
+                        g.push(path[i], pathFlow);
+                        if (firstSaturated == -1 && g.residual(path[i]) == 0) firstSaturated = i;
+                    }
+                    maxFlow = ResidualGraph.addFlow(maxFlow, pathFlow);
+                    augmentations++;
+                    if (listener != null) listener.onAugmented(reversed, len, pathFlow, maxFlow);
+
+                    // Retreat to the tail of the first saturated arc
+                    len = firstSaturated;
+                    u = g.tail(path[len]);
+                    continue;
+                }
+
+                int end = g.offsets[u + 1];
+                int a = cur[u];
+                while (a < end && (g.residual(a) == 0 || level[g.heads[a]] != level[u] + 1)) a++;
+                cur[u] = a;
+
+                if (a < end) {
+                    path[len++] = a;
+                    u = g.heads[a];
+                } else {
+                    level[u] = -1; // Dead end for this phase
+                    if (u == s) break;
+                    int back = path[--len];
+                    u = g.tail(back);
+                    cur[u]++;
+                }
+            }
+        }
+        return FlowResult.of(g, maxFlow, augmentations);
+    }
+
+    private boolean buildLevels(ResidualGraph g, int s, int t, int[] level, int[] queue) {
+        Arrays.fill(level, -1);
+        level[s] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = g.offsets[u]; a < g.offsets[u + 1]; a++) {
+                int v = g.heads[a];
+                if (level[v] == -1 && g.residual(a) > 0) {
+                    level[v] = level[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return level[t] != -1;
+    }
+}
@@ -1,157 +1,444 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
 
+/*
+    Renders the input graph, the flow network or the cut tree.
+
+    Built for large graphs:
+    - Paint resources are shared constants, edge pairs (u-v drawn once) are computed once per graph.
+    - Zoom (mouse wheel) and pan (drag) go through one AffineTransform; double click resets the view.
+      While the view moves, the cached layer is only re-blitted with the change of transform;
+      it is rendered again once, on release or when the wheel has been still for SETTLE_MS.
+    - Everything outside the visible area is skipped, labels are skipped when zoomed far out.
+    - The static layer is cached in a BufferedImage. During playback only the "live" edges
+      (those the recording changes) and the nodes are drawn per frame.
+    Call graphChanged() after editing nodes/edges/flow outside the setters.
+*/
 public class DrawingPanel extends JPanel {
-    
+
+    private static final int NODE_R = 25;               // Radius 25 (Diameter 50) in Pixels
+    private static final int MARGIN = 80;               // Culling slack for node circles and labels
+    private static final double LABEL_MIN_SCALE = 0.4;  // Below this zoom text is unreadable anyway
+    private static final int SETTLE_MS = 150;           // Wheel pause that ends a zoom
+
+    private static final Font TEXT_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Color NODE_FILL = new Color(100, 149, 237);     // Cornflower Blue
+    private static final Color SOURCE_SIDE_FILL = new Color(255, 140, 0); // Source side of the cut
+    private static final Color PATH_COLOR = new Color(0, 200, 0);
+    private static final Color TREE_COLOR = new Color(128, 0, 200);
+    private static final Color LABEL_BG = new Color(255, 255, 255, 240);
+    private static final BasicStroke THIN = new BasicStroke(2);
+    private static final BasicStroke TREE_STROKE = new BasicStroke(3);
+    private static final BasicStroke PATH_STROKE = new BasicStroke(5); // Thicker Highlight
+    private static final BasicStroke CUT_STROKE =
+            new BasicStroke(4, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[] {12, 8}, 0); // Dashed cut edge
+
+    private InputGraph input;
     private ArrayList<Node> nodes;
-    private ArrayList<ArrayList<Edge>> adj;
     private ArrayList<RawInputEdge> rawEdges;
+    private ResidualGraph graph;      // Null -> draw raw input edges
+    private boolean[] highlighted;    // Arcs of the current augmenting path (Green color)
+    private int[] pathArcs = new int[0]; // Same arcs as a list, so clearing is O(path)
+    private long[] displayFlow;       // Flow per arc during playback (null -> graph's own flow)
+    private MinCut minCut;            // Overlay after a run: cut edges red, source side orange
+    private GomoryHuTree cutTree;     // When set, drawn instead of the input/flow edges
+
+    // Edge pairs of the current graph: pair p is drawn once for arcs pairArc[p] / pairRev[p]
+    private int pairCount;
+    private int[] pairArc, pairRev;   // pairRev[p] == -1 -> purely directed
+    private int[] pairOfArc;          // Any arc (residual ones too) -> its pair, or -1
+    private boolean[] livePair;       // Pairs whose flow changes during playback (not in the cached layer)
+    private int[] livePairs = new int[0];
+
+    private final AffineTransform view = new AffineTransform();
+    private BufferedImage layer;      // Cached static layer, null -> rebuild on next paint
+    private final AffineTransform layerView = new AffineTransform(); // View the layer was rendered with
+    private boolean moving;           // Pan/zoom in progress: keep the layer, even if stale
+    private final Timer settle = new Timer(SETTLE_MS, e -> stopMoving());
+
+    public DrawingPanel(InputGraph input) {
+        this.input = input;
+        this.nodes = input.nodes;
+        this.rawEdges = input.edges;
+
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point last;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                last = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                view.preConcatenate(AffineTransform.getTranslateInstance(e.getX() - last.x, e.getY() - last.y));
+                last = e.getPoint();
+                moving = true;
+                repaint();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                stopMoving();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                // Zoom around the cursor
+                double factor = Math.pow(1.15, -e.getPreciseWheelRotation());
+                AffineTransform zoom = AffineTransform.getTranslateInstance(e.getX(), e.getY());
+                zoom.scale(factor, factor);
+                zoom.translate(-e.getX(), -e.getY());
+                view.preConcatenate(zoom);
+                moving = true;
+                settle.restart();
+                repaint();
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    view.setToIdentity();
+                    graphChanged();
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+        settle.setRepeats(false);
+    }
+
+    private void stopMoving() {
+        settle.stop();
+        if (!moving) return;
+        moving = false;
+        graphChanged();
+    }
+
+    public void setGraph(ResidualGraph graph) {
+        this.graph = graph;
+        this.highlighted = graph == null ? null : new boolean[graph.m];
+        this.pathArcs = new int[0];
+        this.displayFlow = null;
+        this.minCut = null;
+        computePairs();
+        layer = null;
+    }
+
+    public void setDisplayFlow(long[] displayFlow) {
+        if (this.displayFlow != displayFlow) layer = null;
+        this.displayFlow = displayFlow;
+    }
+
+    public void setMinCut(MinCut minCut) {
+        this.minCut = minCut;
+        layer = null;
+    }
+
+    public void setCutTree(GomoryHuTree cutTree) {
+        this.cutTree = cutTree;
+        layer = null;
+    }
+
+    // Highlights arcs[from .. to - 1]
+    public void setHighlightedPath(int[] arcs, int from, int to) {
+        if (highlighted == null) return;
+        for (int a : pathArcs) {
+            highlighted[a] = false;
+            if (!isLive(a)) layer = null;
+        }
+        pathArcs = arcs == null ? new int[0] : Arrays.copyOfRange(arcs, from, to);
+        for (int a : pathArcs) {
+            highlighted[a] = true;
+            if (!isLive(a)) layer = null;
+        }
+    }
+
+    // Arcs arcs[from .. to - 1] will change flow during playback: keep their pairs out of the cached layer
+    public void setLiveArcs(int[] arcs, int from, int to) {
+        if (livePair == null) return;
+        Arrays.fill(livePair, false);
+        int count = 0;
+        int[] list = new int[Math.min(pairCount, to - from)];
+        for (int i = from; i < to; i++) {
+            int p = pairOfArc[arcs[i]];
+            if (p != -1 && !livePair[p]) {
+                livePair[p] = true;
+                list[count++] = p;
+            }
+        }
+        livePairs = Arrays.copyOf(list, count);
+        layer = null;
+    }
+
+    // Model edited outside the setters (edges, weights, positions, incremental flow): redraw everything
+    public void graphChanged() {
+        layer = null;
+        repaint();
+    }
+
+    private boolean isLive(int a) {
+        int p = pairOfArc[a];
+        return p != -1 && livePair[p];
+    }
+
+    // One pair per unordered node pair with a real (capacity > 0) arc; first arc found is the one drawn
+    private void computePairs() {
+        pairCount = 0;
+        livePairs = new int[0];
+        if (graph == null) {
+            pairArc = pairRev = pairOfArc = null;
+            livePair = null;
+            return;
+        }
+        HashMap<Long, Integer> index = new HashMap<>();
+        int[] arc = new int[graph.m / 2 + 1];
+        int[] reverse = new int[arc.length];
+        for (int u = 0; u < graph.n; u++) {
+            for (int a = graph.offsets[u]; a < graph.offsets[u + 1]; a++) {
+                if (graph.capacity(a) <= 0) continue;
+                int v = graph.heads[a];
+                Integer p = index.get(pairKey(u, v));
+                if (p == null) {
+                    index.put(pairKey(u, v), pairCount);
+                    arc[pairCount] = a;
+                    reverse[pairCount++] = -1;
+                } else if (reverse[p] == -1 && u != v && graph.heads[arc[p]] == u) {
+                    reverse[p] = a; // First real arc going the opposite way
+                }
+            }
+        }
+        pairArc = Arrays.copyOf(arc, pairCount);
+        pairRev = Arrays.copyOf(reverse, pairCount);
+        pairOfArc = new int[graph.m];
+        for (int a = 0; a < graph.m; a++) {
+            Integer p = index.get(pairKey(graph.tail(a), graph.heads[a]));
+            pairOfArc[a] = p == null ? -1 : p;
+        }
+        livePair = new boolean[pairCount];
+    }
 
-    public DrawingPanel(ArrayList<Node> nodes, ArrayList<ArrayList<Edge>> adj, ArrayList<RawInputEdge> rawEdges) {
-        this.nodes = nodes;
-        this.adj = adj;
-        this.rawEdges = rawEdges;
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
     }
 
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        // Graphics provide basic drawing methods while Graphics2D provides more sophisticated control over geometry, coordinate transformations, color management, and text layout.
-        Graphics2D g2 = (Graphics2D) g; // Convert Graphics to Graphics2D
-        
-        // Used to smooth edges
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        // Used to smooth text
-        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int w = getWidth(), h = getHeight();
+        if (w <= 0 || h <= 0) return;
 
-        // Set Brush Color to White
-        g2.setColor(Color.WHITE);
-        // Fill the entire panel with white color to clear previous drawings
-        g2.fillRect(0, 0, getWidth(), getHeight());
+        if (moving && layer != null && layer.getWidth() == w && layer.getHeight() == h) {
+            blitMoved((Graphics2D) g, w, h);
+        } else if (layer == null || layer.getWidth() != w || layer.getHeight() != h || !layerView.equals(view)) {
+            layer = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            layerView.setTransform(view);
+            Graphics2D lg = layer.createGraphics();
+            // Set Brush Color to White, fill the entire layer to clear previous drawings
+            lg.setColor(Color.WHITE);
+            lg.fillRect(0, 0, w, h);
+            prepare(lg);
+            Rectangle2D visible = visibleArea();
 
-        // Draw edges first so that nodes are on top of edges
-        if (adj.isEmpty()) {
-            drawRawEdges(g2); 
+            // Draw edges first so that nodes are on top of edges
+            if (cutTree != null) {
+                drawCutTree(lg, visible);
+            } else if (graph == null) {
+                drawRawEdges(lg, visible);
+            } else {
+                drawFlowEdges(lg, visible, false); // Works when we Click on Run Flow
+            }
+            if (!hasLiveEdges()) drawNodes(lg, visible);
+            lg.dispose();
+            g.drawImage(layer, 0, 0, null);
         } else {
-            drawFlowEdges(g2); // Works when we Click on Run Flow
+            g.drawImage(layer, 0, 0, null);
         }
 
-        // Draw Nodes One By One
-        for (Node n : nodes) {
-            // Bigger Nodes
-            int r = 25; // Radius 25 (Diameter 50) in Pixels
-            g2.setColor(new Color(100, 149, 237)); // Red , Green , Blue -> Here Color is Cornflower Blue
+        // Only the edges playback changes are redrawn per frame, then the nodes on top of them
+        if (hasLiveEdges()) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            prepare(g2);
+            Rectangle2D visible = visibleArea();
+            drawFlowEdges(g2, visible, true);
+            drawNodes(g2, visible);
+            g2.dispose();
+        }
+    }
+
+    // Layer pixels mapped from the view they were rendered with to the current one
+    private void blitMoved(Graphics2D g, int w, int h) {
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, w, h);
+        try {
+            AffineTransform delta = new AffineTransform(view);
+            delta.concatenate(layerView.createInverse());
+            g.drawImage(layer, delta, null);
+        } catch (NoninvertibleTransformException e) {
+            g.drawImage(layer, 0, 0, null);
+        }
+    }
+
+    private boolean hasLiveEdges() {
+        return cutTree == null && graph != null && livePairs.length > 0;
+    }
+
+    private void prepare(Graphics2D g2) {
+        // Used to smooth edges and text
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.transform(view);
+        g2.setFont(TEXT_FONT);
+    }
+
+    // Panel bounds in graph coordinates, grown by MARGIN so partly visible nodes/labels are kept
+    private Rectangle2D visibleArea() {
+        try {
+            Rectangle2D r = view.createInverse().createTransformedShape(new Rectangle(0, 0, getWidth(), getHeight())).getBounds2D();
+            r.setRect(r.getX() - MARGIN, r.getY() - MARGIN, r.getWidth() + 2 * MARGIN, r.getHeight() + 2 * MARGIN);
+            return r;
+        } catch (NoninvertibleTransformException e) {
+            return new Rectangle(0, 0, getWidth(), getHeight());
+        }
+    }
+
+    private boolean showLabels() {
+        return view.getScaleX() >= LABEL_MIN_SCALE;
+    }
+
+    private static boolean segmentVisible(Rectangle2D r, Node u, Node v) {
+        return Math.max(u.x, v.x) >= r.getMinX() && Math.min(u.x, v.x) <= r.getMaxX()
+            && Math.max(u.y, v.y) >= r.getMinY() && Math.min(u.y, v.y) <= r.getMaxY();
+    }
+
+    private void drawNodes(Graphics2D g2, Rectangle2D visible) {
+        boolean labels = showLabels();
+        // Text Measurement Tool
+        FontMetrics fm = g2.getFontMetrics(TEXT_FONT);
+        g2.setStroke(THIN); // Border Thickness of 2 Pixels
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            if (!visible.contains(n.x, n.y)) continue;
+            if (minCut != null && i < minCut.sourceSide.length && minCut.sourceSide[i]) g2.setColor(SOURCE_SIDE_FILL);
+            else g2.setColor(NODE_FILL);
             // Left, Top Boundary, Width , Height
-            g2.fillOval(n.x - r, n.y - r, 2*r, 2*r); // To fill inner circle
-            // Border Color
+            g2.fillOval(n.x - NODE_R, n.y - NODE_R, 2 * NODE_R, 2 * NODE_R); // To fill inner circle
             g2.setColor(Color.BLACK);
-            // Border Thickness of 2 Pixels
-            g2.setStroke(new BasicStroke(2));
-            g2.drawOval(n.x - r, n.y - r, 2*r, 2*r); // To draw outer circle
-            
-            // Node Text Color
-            g2.setColor(Color.WHITE);
-            // Writing style, Style, Size
-            g2.setFont(new Font("Arial", Font.BOLD, 18)); // Font 18
-            // Text Measurement Tool
-            FontMetrics fm = g2.getFontMetrics();
-            // Text Width
-            int tw = fm.stringWidth(n.name);
-            // Text Height
-            int th = fm.getAscent();
-            // Draw the Node Name at the Center of the Node
-            g2.drawString(n.name, n.x - tw / 2, n.y + th / 2 - 2);
+            g2.drawOval(n.x - NODE_R, n.y - NODE_R, 2 * NODE_R, 2 * NODE_R); // To draw outer circle
+
+            if (labels) {
+                // Draw the Node Name at the Center of the Node
+                g2.setColor(Color.WHITE);
+                g2.drawString(n.name, n.x - fm.stringWidth(n.name) / 2, n.y + fm.getAscent() / 2 - 2);
+            }
         }
     }
 
-    private void drawRawEdges(Graphics2D g2) {
-        g2.setStroke(new BasicStroke(2)); // 2 Pixel Thickness
-        for(RawInputEdge raw : rawEdges) {
-            Node u = findNodeByName(raw.u);
-            Node v = findNodeByName(raw.v);
-            if (u != null && v != null) {
-                g2.setColor(Color.GRAY);
-                g2.drawLine(u.x, u.y, v.x, v.y);
-                
-                int tx = (int) (u.x + (v.x - u.x) * 0.35);
-                int ty = (int) (u.y + (v.y - u.y) * 0.35);
-                
-                // Draw the weight label for the raw edge
-                drawLabelAtPosition(g2, String.valueOf(raw.weight), tx, ty, Color.BLACK);
-            }
+    private void drawRawEdges(Graphics2D g2, Rectangle2D visible) {
+        boolean labels = showLabels();
+        g2.setStroke(THIN); // 2 Pixel Thickness
+        for (RawInputEdge raw : rawEdges) {
+            Node u = input.node(raw.u);
+            Node v = input.node(raw.v);
+            if (u == null || v == null || !segmentVisible(visible, u, v)) continue;
+            g2.setColor(Color.GRAY);
+            g2.drawLine(u.x, u.y, v.x, v.y);
+
+            // Draw the weight label for the raw edge
+            if (labels) drawLabelAtPosition(g2, String.valueOf(raw.weight), labelX(u, v), labelY(u, v), Color.BLACK);
         }
     }
 
-    private void drawFlowEdges(Graphics2D g2) {
-        // Duplicate Edge Control
-        HashSet<String> drawnPairs = new HashSet<>();
-
-        for (int uIdx = 0; uIdx < adj.size(); uIdx++) {
-            for (Edge e : adj.get(uIdx)) {
-                if (e.capacity > 0) {
-                    Node u = nodes.get(e.u);
-                    Node v = nodes.get(e.v);
-
-                    int min = Math.min(e.u, e.v);
-                    int max = Math.max(e.u, e.v);
-                    String pairKey = min + "-" + max;
-
-                    if (drawnPairs.contains(pairKey)) continue; 
-                    drawnPairs.add(pairKey);
-
-                    boolean hasFlow = e.flow > 0;
-                    Edge reverseEdge = findReverseEdge(e);
-                    boolean reverseFlow = (reverseEdge != null && reverseEdge.flow > 0);
-
-                    if (e.isHighlighted || (reverseEdge != null && reverseEdge.isHighlighted)) {
-                        g2.setColor(new Color(0, 200, 0)); 
-                        g2.setStroke(new BasicStroke(5)); // Thicker Highlight
-                    } else {
-                        g2.setColor(Color.BLACK);
-                        g2.setStroke(new BasicStroke(2));
-                    }
-
-                    g2.drawLine(u.x, u.y, v.x, v.y);
-
-                    if (hasFlow) drawArrowHead(g2, u, v);
-                    else if (reverseFlow) drawArrowHead(g2, v, u);
-                    else if (isPurelyDirected(e)) drawArrowHead(g2, u, v);
-
-                    String label;
-                    if (hasFlow) label = e.flow + "/" + e.capacity;
-                    else if (reverseFlow) label = reverseEdge.flow + "/" + reverseEdge.capacity;
-                    else label = "0/" + e.capacity;
-
-                    Color textColor = (hasFlow || reverseFlow) ? Color.BLUE : Color.DARK_GRAY;
-                    
-                    int tx = (int) (u.x + (v.x - u.x) * 0.35);
-                    int ty = (int) (u.y + (v.y - u.y) * 0.35);
-                    
-                    drawLabelAtPosition(g2, label, tx, ty, textColor);
-                }
+    // Gomory-Hu tree: one purple edge per non-root node, labelled with its min cut value
+    private void drawCutTree(Graphics2D g2, Rectangle2D visible) {
+        boolean labels = showLabels();
+        g2.setStroke(TREE_STROKE);
+        for (int i = 0; i < cutTree.n && i < nodes.size(); i++) {
+            if (cutTree.isRoot(i)) continue;
+            Node u = nodes.get(i);
+            Node v = nodes.get(cutTree.parent[i]);
+            if (!segmentVisible(visible, u, v)) continue;
+            g2.setColor(TREE_COLOR);
+            g2.drawLine(u.x, u.y, v.x, v.y);
+            if (labels) drawLabelAtPosition(g2, String.valueOf(cutTree.weight[i]), (u.x + v.x) / 2, (u.y + v.y) / 2, TREE_COLOR);
+        }
+    }
+
+    // live == false: every pair except the live ones (cached layer); live == true: only the live ones
+    private void drawFlowEdges(Graphics2D g2, Rectangle2D visible, boolean live) {
+        if (live) {
+            for (int p : livePairs) drawPair(g2, visible, p);
+        } else {
+            for (int p = 0; p < pairCount; p++) {
+                if (!livePair[p]) drawPair(g2, visible, p);
             }
         }
     }
 
-    private Edge findReverseEdge(Edge forward) {
-        for(Edge e : adj.get(forward.v)) {
-            if(e.v == forward.u && e.capacity > 0) return e; 
+    private void drawPair(Graphics2D g2, Rectangle2D visible, int p) {
+        int a = pairArc[p], reverseArc = pairRev[p];
+        Node u = nodes.get(graph.tail(a));
+        Node v = nodes.get(graph.heads[a]);
+        if (!segmentVisible(visible, u, v)) return;
+
+        boolean hasFlow = flowOf(a) > 0;
+        boolean reverseFlow = (reverseArc != -1 && flowOf(reverseArc) > 0);
+
+        if (highlighted[a] || (reverseArc != -1 && highlighted[reverseArc])) {
+            g2.setColor(PATH_COLOR);
+            g2.setStroke(PATH_STROKE);
+        } else if (minCut != null && (minCut.isCutArc(graph, a) || (reverseArc != -1 && minCut.isCutArc(graph, reverseArc)))) {
+            g2.setColor(Color.RED);
+            g2.setStroke(CUT_STROKE);
+        } else {
+            g2.setColor(Color.BLACK);
+            g2.setStroke(THIN);
         }
-        return null;
+
+        g2.drawLine(u.x, u.y, v.x, v.y);
+        if (!showLabels()) return;
+
+        if (hasFlow) drawArrowHead(g2, u, v);
+        else if (reverseFlow) drawArrowHead(g2, v, u);
+        else if (reverseArc == -1) drawArrowHead(g2, u, v); // Purely directed
+
+        String label;
+        if (hasFlow) label = flowOf(a) + "/" + graph.capacity(a);
+        else if (reverseFlow) label = flowOf(reverseArc) + "/" + graph.capacity(reverseArc);
+        else label = "0/" + graph.capacity(a);
+
+        Color textColor = (hasFlow || reverseFlow) ? Color.BLUE : Color.DARK_GRAY;
+        drawLabelAtPosition(g2, label, labelX(u, v), labelY(u, v), textColor);
+    }
+
+    private long flowOf(int a) {
+        return displayFlow != null ? displayFlow[a] : graph.flow(a);
+    }
+
+    private static int labelX(Node u, Node v) {
+        return (int) (u.x + (v.x - u.x) * 0.35);
     }
 
-    private boolean isPurelyDirected(Edge e) {
-        return findReverseEdge(e) == null;
+    private static int labelY(Node u, Node v) {
+        return (int) (u.y + (v.y - u.y) * 0.35);
     }
 
     private void drawArrowHead(Graphics2D g2, Node u, Node v) {
         double angle = Math.atan2(v.y - u.y, v.x - u.x);
-        int r = 25; // Adjusted for bigger node size
-        int endX = (int) (v.x - r * Math.cos(angle));
-        int endY = (int) (v.y - r * Math.sin(angle));
-        
+        int endX = (int) (v.x - NODE_R * Math.cos(angle));
+        int endY = (int) (v.y - NODE_R * Math.sin(angle));
+
         // Arrow Spread Angle
         double arrowAngle = Math.PI / 6; // 30 degrees
         int arrowLen = 18; // Arrow Wings Length
@@ -159,27 +446,20 @@ public class DrawingPanel extends JPanel {
         int y1 = (int) (endY - arrowLen * Math.sin(angle - arrowAngle));
         int x2 = (int) (endX - arrowLen * Math.cos(angle + arrowAngle));
         int y2 = (int) (endY - arrowLen * Math.sin(angle + arrowAngle));
-        
+
         g2.drawLine(endX, endY, x1, y1);
         g2.drawLine(endX, endY, x2, y2);
     }
 
     private void drawLabelAtPosition(Graphics2D g2, String text, int x, int y, Color color) {
-        // Bigger Font for Weights
-        g2.setFont(new Font("Arial", Font.BOLD, 18)); 
-        FontMetrics fm = g2.getFontMetrics();
+        FontMetrics fm = g2.getFontMetrics(TEXT_FONT);
         int w = fm.stringWidth(text);
         int h = fm.getHeight();
-        
-        g2.setColor(new Color(255, 255, 255, 240));
+
+        g2.setColor(LABEL_BG);
         g2.fillRect(x - w/2 - 6, y - h/2 + 2, w + 12, h); // Bigger Box
-        
+
         g2.setColor(color);
         g2.drawString(text, x - w/2, y + h/3);
     }
-
-    private Node findNodeByName(String name) {
-        for(Node n : nodes) if(n.name.equals(name)) return n;
-        return null;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+import java.util.Arrays;
+
+/*
+    Result of EdgeListLoader: plain arrays, no per-edge objects.
+    Node ids are 0-based; names is null when the file numbers its nodes (DIMACS).
+*/
+public class EdgeList {
+    public int nodeCount;
+    public String[] names;
+    public boolean directed;      // DIMACS arcs are directed, CSV edges follow the GUI's undirected rules
+    public int source = -1, sink = -1;
+
+    public int edgeCount;
+    public int[] from, to;
+    public int[] cap;             // Capacities while they all fit in an int ...
+    public long[] cap64;          // ... otherwise here (cap is then null)
+
+    public long cap(int i) {
+        return cap64 != null ? cap64[i] : cap[i];
+    }
+
+    public String name(int idx) {
+        return names != null ? names[idx] : String.valueOf(idx + 1);
+    }
+
+    // Returns the edge id
+    public int addEdge(int u, int v, long capacity) {
+        if (edgeCount == from.length) grow(Math.max(16, edgeCount * 2));
+        from[edgeCount] = u;
+        to[edgeCount] = v;
+        setCap(edgeCount, capacity);
+        return edgeCount++;
+    }
+
+    public void setCap(int i, long capacity) {
+        if (cap64 == null && capacity > Integer.MAX_VALUE) widen();
+        if (cap64 != null) cap64[i] = capacity;
+        else cap[i] = (int) capacity;
+    }
+
+    // Resizes the edge arrays (also used to trim them to edgeCount)
+    public void grow(int size) {
+        from = Arrays.copyOf(from, size);
+        to = Arrays.copyOf(to, size);
+        if (cap64 != null) cap64 = Arrays.copyOf(cap64, size);
+        else cap = Arrays.copyOf(cap, size);
+    }
+
+    // First capacity beyond int range: move to 64-bit capacities from here on
+    private void widen() {
+        cap64 = new long[from.length];
+        for (int i = 0; i < edgeCount; i++) cap64[i] = cap[i];
+        cap = null;
+    }
+
+    /*
+        Directed lists: parallel arcs u -> v become one arc with the summed capacity
+        (kept where the first one was), antiparallel arcs stay separate.
+        Arcs are grouped by tail with a counting sort, then per tail a head -> first arc
+        table finds the duplicates: O(n + m), no per-arc objects.
+    */
+    public void mergeParallel() {
+        int n = nodeCount, m = edgeCount;
+        int[] byTail = new int[m], next = new int[n + 1];
+        for (int i = 0; i < m; i++) next[from[i] + 1]++;
+        for (int u = 0; u < n; u++) next[u + 1] += next[u];
+        for (int i = 0; i < m; i++) byTail[next[from[i]]++] = i; // next[u] ends as the start of u + 1
+
+        int[] seen = new int[n], firstArc = new int[n], target = new int[m];
+        Arrays.fill(seen, -1);
+        for (int k = 0; k < m; k++) {
+            int i = byTail[k], u = from[i], v = to[i];
+            if (seen[v] == u) {
+                target[i] = firstArc[v];
+            } else {
+                seen[v] = u;
+                firstArc[v] = i;
+                target[i] = i;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < m; i++) {
+            if (target[i] != i) {
+                long sum = cap(target[i]) + cap(i);
+                setCap(target[i], sum < 0 ? Long.MAX_VALUE : sum); // Saturate on overflow
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            if (target[i] != i) continue;
+            from[kept] = from[i];
+            to[kept] = to[i];
+            setCap(kept, cap(i));
+            kept++;
+        }
+        edgeCount = kept;
+        grow(kept);
+    }
+
+    // Edge id of u -> v, or -1 (linear scan, for single edits)
+    public int findArc(int u, int v) {
+        for (int i = 0; i < edgeCount; i++) if (from[i] == u && to[i] == v) return i;
+        return -1;
+    }
+}
@@ -0,0 +1,304 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+    Streaming edge-list parser. Reads the file in 1 MB blocks through a FileChannel
+    and parses the bytes in place: no readLine, no String.split, no per-line objects.
+    CSV:    from,to,capacity   (optional header line, # comments, names are interned once)
+    DIMACS: c comment / p max n m / n id s|t / a from to capacity
+*/
+public class EdgeListLoader {
+
+    public enum Format { CSV, DIMACS }
+
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes);
+    }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Format format;
+    private final EdgeList list = new EdgeList();
+    private NameTable nameTable;
+
+    // Current line being parsed
+    private byte[] buf;
+    private int pos, end;
+    private long lineNo;
+    private boolean seenCsvLine;    // A header can only come before the first edge
+
+    private EdgeListLoader(Format format) {
+        this.format = format;
+    }
+
+    public static EdgeList load(Path path) throws IOException {
+        return load(path, detectFormat(path), null);
+    }
+
+    public static EdgeList load(Path path, Format format, ProgressListener progress) throws IOException {
+        return new EdgeListLoader(format).run(path, progress);
+    }
+
+    // .csv -> CSV; otherwise DIMACS if the first byte is a DIMACS line type
+    public static Format detectFormat(Path path) throws IOException {
+        if (path.toString().toLowerCase().endsWith(".csv")) return Format.CSV;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer first = ByteBuffer.allocate(1);
+            if (ch.read(first) == 1) {
+                byte b = first.get(0);
+                if (b == 'c' || b == 'p') return Format.DIMACS;
+            }
+        }
+        return Format.CSV;
+    }
+
+    private EdgeList run(Path path, ProgressListener progress) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long total = ch.size();
+            // Rough guess (~16 bytes per line), DIMACS "p" lines give the exact count
+            int capacityHint = (int) Math.max(16, Math.min(1 << 20, total / 16));
+            list.from = new int[capacityHint];
+            list.to = new int[capacityHint];
+            list.cap = new int[capacityHint];
+            list.directed = format == Format.DIMACS;
+            if (format == Format.CSV) nameTable = new NameTable();
+
+            buf = new byte[BUFFER_SIZE];
+            ByteBuffer window = ByteBuffer.wrap(buf);
+            int filled = 0;
+            long done = 0;
+            boolean eof = false;
+
+            while (!eof) {
+                window.limit(buf.length).position(filled);
+                int r = ch.read(window);
+                if (r == -1) eof = true;
+                else { filled += r; done += r; }
+
+                int lineStart = 0;
+                for (int i = 0; i < filled; i++) {
+                    if (buf[i] == '\n') {
+                        parseLine(lineStart, i);
+                        lineStart = i + 1;
+                    }
+                }
+                if (eof) {
+                    if (lineStart < filled) parseLine(lineStart, filled);
+                    break;
+                }
+                if (lineStart == 0 && filled == buf.length)
+                    throw new IOException("Line " + (lineNo + 1) + ": longer than " + BUFFER_SIZE + " bytes");
+
+                // Carry the partial last line over to the next block
+                System.arraycopy(buf, lineStart, buf, 0, filled - lineStart);
+                filled -= lineStart;
+                if (progress != null) progress.onProgress(done, total);
+            }
+            if (progress != null) progress.onProgress(total, total);
+        }
+
+        if (nameTable != null) {
+            list.names = nameTable.toArray();
+            list.nodeCount = list.names.length;
+        }
+        list.grow(list.edgeCount); // Trim
+        return list;
+    }
+
+    private void parseLine(int start, int stop) throws IOException {
+        lineNo++;
+        pos = start;
+        end = stop;
+        if (end > pos && buf[end - 1] == '\r') end--;
+        skipSpaces();
+        if (pos == end) return;
+
+        if (format == Format.DIMACS) parseDimacs();
+        else parseCsv();
+    }
+
+    private void parseDimacs() throws IOException {
+        byte type = buf[pos++];
+        switch (type) {
+            case 'c':
+                return;
+            case 'p': {
+                skipSpaces();
+                while (pos < end && buf[pos] != ' ' && buf[pos] != '\t') pos++; // Problem type ("max")
+                long n = readNumber();
+                if (n > Integer.MAX_VALUE - 8) throw error("too many nodes");
+                list.nodeCount = (int) n;
+                long m = readNumber();
+                expectEnd("the edge count");
+                if (m > list.from.length) list.grow((int) Math.min(m, Integer.MAX_VALUE - 8));
+                return;
+            }
+            case 'n': {
+                int id = readNodeId();
+                skipSpaces();
+                if (pos < end && buf[pos] == 's') list.source = id;
+                else if (pos < end && buf[pos] == 't') list.sink = id;
+                else throw error("expected 's' or 't'");
+                pos++;
+                expectEnd("'" + (char) buf[pos - 1] + "'");
+                return;
+            }
+            case 'a': {
+                int u = readNodeId();
+                int v = readNodeId();
+                long cap = readNumber();
+                expectEnd("the capacity");
+                list.addEdge(u, v, cap);
+                return;
+            }
+            default:
+                throw error("unknown line type '" + (char) type + "'");
+        }
+    }
+
+    private void parseCsv() throws IOException {
+        if (buf[pos] == '#') return;
+        boolean first = !seenCsvLine;
+        seenCsvLine = true;
+        int nameEnd = fieldEnd();
+        int u = nameTable.intern(buf, pos, nameEnd - pos);
+        pos = nextField();
+        nameEnd = fieldEnd();
+        int v = nameTable.intern(buf, pos, nameEnd - pos);
+        pos = nextField();
+        skipSpaces();
+
+        // First non-comment line with a non-numeric capacity is a header
+        if (first && (pos == end || buf[pos] < '0' || buf[pos] > '9')) {
+            nameTable.clear();
+            return;
+        }
+        long cap = readNumber();
+        expectEnd("the capacity");
+        list.addEdge(u, v, cap);
+    }
+
+    // --- Byte-level field helpers ---
+
+    private void skipSpaces() {
+        while (pos < end && (buf[pos] == ' ' || buf[pos] == '\t')) pos++;
+    }
+
+    // End of the current CSV field, trailing spaces trimmed
+    private int fieldEnd() throws IOException {
+        skipSpaces();
+        int e = pos;
+        while (e < end && buf[e] != ',') e++;
+        if (e == end) throw error("expected from,to,capacity");
+        int trimmed = e;
+        while (trimmed > pos && (buf[trimmed - 1] == ' ' || buf[trimmed - 1] == '\t')) trimmed--;
+        if (trimmed == pos) throw error("empty node name");
+        return trimmed;
+    }
+
+    private int nextField() {
+        while (pos < end && buf[pos] != ',') pos++;
+        return pos < end ? pos + 1 : end;
+    }
+
+    private int readNodeId() throws IOException {
+        long id = readNumber();
+        if (id < 1 || id > list.nodeCount) throw error("node id " + id + " out of range 1.." + list.nodeCount);
+        return (int) id - 1;
+    }
+
+    private long readNumber() throws IOException {
+        skipSpaces();
+        if (pos == end || buf[pos] < '0' || buf[pos] > '9') throw error("expected a non-negative number");
+        long value = 0;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            int digit = buf[pos++] - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) throw error("number too large");
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Only spaces may follow the last field of a line
+    private void expectEnd(String what) throws IOException {
+        skipSpaces();
+        if (pos < end) throw error("unexpected '" + new String(buf, pos, Math.min(end - pos, 20), StandardCharsets.UTF_8) + "' after " + what);
+    }
+
+    private IOException error(String msg) {
+        return new IOException("Line " + lineNo + ": " + msg);
+    }
+
+    /*
+        Open-addressing table over raw name bytes.
+        A String is only created once per distinct node, not once per line.
+    */
+    private static class NameTable {
+        private byte[] pool = new byte[1 << 16];
+        private int poolSize = 0;
+        private int[] start = new int[1024], length = new int[1024], hash = new int[1024];
+        private int count = 0;
+        private int[] slots = new int[2048];    // id + 1, 0 = empty
+
+        int intern(byte[] b, int off, int len) {
+            int h = 1;
+            for (int i = 0; i < len; i++) h = 31 * h + b[off + i];
+            int mask = slots.length - 1;
+            for (int i = mix(h) & mask; ; i = (i + 1) & mask) {
+                int id = slots[i] - 1;
+                if (id < 0) break;
+                if (hash[id] == h && length[id] == len && Arrays.equals(pool, start[id], start[id] + len, b, off, off + len))
+                    return id;
+            }
+
+            if (count == start.length) {
+                start = Arrays.copyOf(start, count * 2);
+                length = Arrays.copyOf(length, count * 2);
+                hash = Arrays.copyOf(hash, count * 2);
+            }
+            while (poolSize + len > pool.length) pool = Arrays.copyOf(pool, pool.length * 2);
+            System.arraycopy(b, off, pool, poolSize, len);
+            start[count] = poolSize;
+            length[count] = len;
+            hash[count] = h;
+            poolSize += len;
+            int id = count++;
+            if (count * 2 > slots.length) rehash();
+            else insert(id);
+            return id;
+        }
+
+        String[] toArray() {
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) names[i] = new String(pool, start[i], length[i], StandardCharsets.UTF_8);
+            return names;
+        }
+
+        void clear() {
+            poolSize = 0;
+            count = 0;
+            Arrays.fill(slots, 0);
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            for (int id = 0; id < count; id++) insert(id);
+        }
+
+        private void insert(int id) {
+            int mask = slots.length - 1;
+            int i = mix(hash[id]) & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = id + 1;
+        }
+
+        private static int mix(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.Arrays;
+
+// Edmonds-Karp: BFS shortest augmenting path, O(V * E^2)
+public class EdmondsKarpSolver implements MaxFlowSolver {
+    private final AugmentListener listener;
+
+    public EdmondsKarpSolver() {
+        this(null);
+    }
+
+    public EdmondsKarpSolver(AugmentListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public FlowResult solve(ResidualGraph g, int s, int t) {
+        if (s == t) return FlowResult.of(g, 0, 0);
+
+        // Allocated once per solve, reused by every BFS round
+        int[] parentArc = new int[g.n];
+        int[] queue = new int[g.n];        // Each node is enqueued at most once per round
+        int[] visited = new int[g.n];      // visited[v] == stamp -> seen in this round (no Arrays.fill)
+        int[] path = listener != null ? new int[g.n] : null;
+        int stamp = 0;
+
+        long maxFlow = g.flowValue(s);
+        int augmentations = 0;
+
+        while (true) {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                stamp = 1;
+            }
+            visited[s] = stamp;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            boolean pathFound = false;
+
+            while (head < tail) {
+                int u = queue[head++];
+                if (u == t) { pathFound = true; break; }
+                for (int a = g.offsets[u], end = g.offsets[u + 1]; a < end; a++) {
+                    int v = g.heads[a];
+                    if (visited[v] != stamp && g.residual(a) > 0) {
+                        visited[v] = stamp;
+                        parentArc[v] = a;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+
+            // Algorithm Stopping Condition
+            if (!pathFound) break;
+
+            long pathFlow = Long.MAX_VALUE;
+            int len = 0;
+            for (int curr = t; curr != s; curr = g.tail(parentArc[curr])) {
+                pathFlow = Math.min(pathFlow, g.residual(parentArc[curr]));
+                if (path != null) path[len] = parentArc[curr];
+                len++;
+            }
+
+            if (listener != null) listener.onPathFound(path, len, pathFlow);
+
+            for (int curr = t; curr != s; ) {
+                int a = parentArc[curr];
+                g.push(a, pathFlow);
+                curr = g.tail(a);
+            }
+            maxFlow = ResidualGraph.addFlow(maxFlow, pathFlow);
+            augmentations++;
+
+            if (listener != null) listener.onAugmented(path, len, pathFlow, maxFlow);
+        }
+        return FlowResult.of(g, maxFlow, augmentations);
+    }
+}
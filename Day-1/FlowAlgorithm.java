@@ -0,0 +1,26 @@
+// Strategies selectable from the Configuration panel
+public enum FlowAlgorithm {
+    EDMONDS_KARP("Edmonds-Karp"),
+    DINIC("Dinic"),
+    PUSH_RELABEL("Push-Relabel");
+
+    private final String label;
+
+    FlowAlgorithm(String label) {
+        this.label = label;
+    }
+
+    // Push-relabel has no augmenting paths, so it ignores the listener
+    public MaxFlowSolver create(AugmentListener listener) {
+        switch (this) {
+            case DINIC: return new DinicSolver(listener);
+            case PUSH_RELABEL: return new PushRelabelSolver();
+            default: return new EdmondsKarpSolver(listener);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,193 @@
+import javax.swing.*;
+import java.awt.*;
+
+/*
+    Replays a FlowEventLog on the canvas with a Swing Timer (everything runs on the EDT).
+    Keeps its own display flow per arc, so the solver's graph is never read mid-solve
+    and seeking is just applying / undoing events between two positions.
+*/
+public class FlowAnimator extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    public interface Listener {
+        void onStep(int step);   // Event `step` was just replayed (forward playback only)
+        void onFinished();       // Reached the end (played through or skipped)
+    }
+
+    private final DrawingPanel canvas;
+    private final Listener listener;
+    private final Timer timer;
+    private final JButton playButton;
+    private final JSlider seekSlider, speedSlider;
+    private final JLabel stepLabel;
+
+    private ResidualGraph graph;
+    private FlowEventLog log;
+    private long[] displayFlow;
+    private int position;          // Events 0 .. position - 1 are applied to displayFlow
+    private boolean finished;
+    private boolean seeking;       // Slider updated by us, not the user
+
+    public FlowAnimator(DrawingPanel canvas, Listener listener) {
+        super(new FlowLayout(FlowLayout.LEFT, 15, 8));
+        this.canvas = canvas;
+        this.listener = listener;
+        setBorder(BorderFactory.createTitledBorder("Playback"));
+
+        Font font = new Font("Arial", Font.BOLD, 16);
+        playButton = new JButton("PLAY");
+        playButton.setFont(font);
+        JButton endButton = new JButton("SKIP TO END");
+        endButton.setFont(font);
+
+        seekSlider = new JSlider(0, 0, 0);
+        seekSlider.setPreferredSize(new Dimension(420, 40));
+        speedSlider = new JSlider(1, 50, 2); // Steps per second
+        speedSlider.setPreferredSize(new Dimension(160, 40));
+        stepLabel = new JLabel("Step 0 / 0");
+        stepLabel.setFont(font);
+
+        add(playButton);
+        add(endButton);
+        add(new JLabel("Seek:"));
+        add(seekSlider);
+        add(new JLabel("Speed:"));
+        add(speedSlider);
+        add(stepLabel);
+
+        timer = new Timer(delay(), e -> tick());
+        playButton.addActionListener(e -> togglePlay());
+        endButton.addActionListener(e -> skipToEnd());
+        speedSlider.addChangeListener(e -> timer.setDelay(delay()));
+        seekSlider.addChangeListener(e -> {
+            if (!seeking && log != null) seek(seekSlider.getValue());
+        });
+        setEnabled(false);
+    }
+
+    // New recording for `graph` (solver finished, flow in graph is final)
+    public void load(ResidualGraph graph, FlowEventLog log, boolean autoPlay) {
+        timer.stop();
+        this.graph = graph;
+        this.log = log;
+        this.displayFlow = new long[graph.m];
+        this.position = 0;
+        this.finished = false;
+        seeking = true;
+        seekSlider.setMaximum(log.steps());
+        seekSlider.setValue(0);
+        seeking = false;
+        canvas.setLiveArcs(log.arcs(), 0, log.pathStart(log.steps()));
+        setEnabled(true);
+        if (autoPlay && log.steps() > 0) {
+            canvas.setDisplayFlow(displayFlow);
+            updateLabel();
+            play();
+        } else {
+            skipToEnd();
+        }
+    }
+
+    public FlowEventLog log() {
+        return log;
+    }
+
+    // Drop the recording (graph edited or reset); the canvas shows the live graph again
+    public void unload() {
+        timer.stop();
+        graph = null;
+        log = null;
+        displayFlow = null;
+        position = 0;
+        seeking = true;
+        seekSlider.setMaximum(0);
+        seeking = false;
+        playButton.setText("PLAY");
+        stepLabel.setText("Step 0 / 0");
+        canvas.setDisplayFlow(null);
+        canvas.setHighlightedPath(null, 0, 0);
+        canvas.setLiveArcs(null, 0, 0);
+        setEnabled(false);
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        for (Component c : getComponents()) c.setEnabled(enabled);
+    }
+
+    private int delay() {
+        return 1000 / speedSlider.getValue();
+    }
+
+    private void togglePlay() {
+        if (log == null) return;
+        if (timer.isRunning()) {
+            timer.stop();
+            playButton.setText("PLAY");
+        } else {
+            if (position == log.steps()) seek(0); // Replay from the start
+            play();
+        }
+    }
+
+    private void play() {
+        canvas.setDisplayFlow(displayFlow);
+        playButton.setText("PAUSE");
+        timer.start();
+    }
+
+    private void tick() {
+        if (position < log.steps()) {
+            int step = position;
+            seek(step + 1);
+            listener.onStep(step);
+        } else {
+            skipToEnd();
+        }
+    }
+
+    private void skipToEnd() {
+        if (log == null) return;
+        timer.stop();
+        seek(log.steps());
+        playButton.setText("PLAY");
+        // At the end the recording equals the graph's own flow: show it live so later edits are visible
+        canvas.setDisplayFlow(null);
+        canvas.setHighlightedPath(null, 0, 0);
+        canvas.repaint();
+        if (!finished) {
+            finished = true;
+            listener.onFinished();
+        }
+    }
+
+    private void seek(int target) {
+        canvas.setDisplayFlow(displayFlow);
+        while (position < target) apply(position++, 1);
+        while (position > target) apply(--position, -1);
+
+        if (position > 0) canvas.setHighlightedPath(log.arcs(), log.pathStart(position - 1), log.pathStart(position));
+        else canvas.setHighlightedPath(null, 0, 0);
+
+        seeking = true;
+        seekSlider.setValue(position);
+        seeking = false;
+        updateLabel();
+        canvas.repaint();
+    }
+
+    private void apply(int step, int sign) {
+        long delta = sign * log.delta(step);
+        int[] rev = graph.rev;
+        for (int k = log.pathStart(step), end = log.pathStart(step + 1); k < end; k++) {
+            int a = log.arc(k);
+            displayFlow[a] += delta;
+            displayFlow[rev[a]] -= delta;
+        }
+    }
+
+    private void updateLabel() {
+        stepLabel.setText("Step " + position + " / " + log.steps());
+    }
+}
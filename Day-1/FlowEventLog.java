@@ -0,0 +1,61 @@
+import java.util.Arrays;
+
+/*
+    Recording of a max-flow run: one event per augmenting path (its arcs + the flow pushed).
+    Attached as the solver's listener, so recording costs one array copy per path and
+    the solver runs at full speed. FlowAnimator replays it afterwards.
+
+    Event i uses arcs(pathStart(i) .. pathStart(i + 1) - 1), ordered sink -> source.
+*/
+public class FlowEventLog implements AugmentListener {
+    private int steps;
+    private int[] pathStart = new int[17];
+    private int[] arcs = new int[64];
+    private long[] deltas = new long[16];
+    private long[] totals = new long[16];   // Flow value after each step
+
+    @Override
+    public void onPathFound(int[] pathArcs, int len, long pathFlow) {
+        // Nothing to record until the flow is actually pushed
+    }
+
+    @Override
+    public void onAugmented(int[] pathArcs, int len, long pathFlow, long totalFlow) {
+        int start = pathStart[steps];
+        if (start + len > arcs.length) arcs = Arrays.copyOf(arcs, Math.max(arcs.length * 2, start + len));
+        if (steps + 2 > pathStart.length) pathStart = Arrays.copyOf(pathStart, pathStart.length * 2);
+        if (steps == deltas.length) {
+            deltas = Arrays.copyOf(deltas, deltas.length * 2);
+            totals = Arrays.copyOf(totals, totals.length * 2);
+        }
+        System.arraycopy(pathArcs, 0, arcs, start, len);
+        deltas[steps] = pathFlow;
+        totals[steps] = totalFlow;
+        pathStart[++steps] = start + len;
+    }
+
+    public int steps() {
+        return steps;
+    }
+
+    public int pathStart(int step) {
+        return pathStart[step];
+    }
+
+    public int arc(int k) {
+        return arcs[k];
+    }
+
+    // Shared buffer; only read it between pathStart(step) and pathStart(step + 1)
+    public int[] arcs() {
+        return arcs;
+    }
+
+    public long delta(int step) {
+        return deltas[step];
+    }
+
+    public long totalAfter(int step) {
+        return totals[step];
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/*
+    Headless flow network builder: no Swing, no logging.
+    Can be built programmatically (addNode / addEdge) or from the
+    undirected RawInputEdge list using the same conversion rules as the GUI.
+    Edges are kept in flat primitive arrays; build() turns them into a CSR ResidualGraph.
+*/
+public class FlowNetwork {
+    private final ArrayList<String> names = new ArrayList<>(); // Null for unnamed (numbered) nodes
+
+    // Forward edges, indexed by edge id
+    private int edgeCount = 0;
+    private int[] edgeU = new int[16], edgeV = new int[16], edgeCap = new int[16];
+    private long[] edgeCap64;   // Replaces edgeCap once a capacity needs 64 bits
+
+    private final HashMap<String, Integer> nameIndex = new HashMap<>();
+
+    // Conversion rules reported by addRawEdge
+    public static final int RULE_SOURCE = 1;
+    public static final int RULE_SINK = 2;
+    public static final int RULE_INTERNAL = 3;
+
+    public int nodeCount() {
+        return names.size();
+    }
+
+    public int addNode(String name) {
+        Integer idx = nameIndex.get(name);
+        if (idx != null) return idx;
+        names.add(name);
+        nameIndex.put(name, names.size() - 1);
+        return names.size() - 1;
+    }
+
+    // Bulk-adds unnamed nodes (e.g. DIMACS ids), returns the first new index
+    public int addNodes(int count) {
+        int first = names.size();
+        names.ensureCapacity(first + count);
+        for (int i = 0; i < count; i++) names.add(null);
+        return first;
+    }
+
+    // Unnamed nodes are shown by their 1-based id
+    public String name(int idx) {
+        String name = names.get(idx);
+        return name != null ? name : String.valueOf(idx + 1);
+    }
+
+    public int indexOf(String name) {
+        Integer idx = nameIndex.get(name);
+        return idx == null ? -1 : idx;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    // Adds u -> v (its residual partner is created by build), returns the edge id
+    public int addEdge(int u, int v, long cap) {
+        if (edgeCount == edgeU.length) {
+            int len = edgeCount * 2;
+            edgeU = Arrays.copyOf(edgeU, len);
+            edgeV = Arrays.copyOf(edgeV, len);
+            if (edgeCap64 != null) edgeCap64 = Arrays.copyOf(edgeCap64, len);
+            else edgeCap = Arrays.copyOf(edgeCap, len);
+        }
+        if (edgeCap64 == null && cap > Integer.MAX_VALUE) widen();
+        edgeU[edgeCount] = u;
+        edgeV[edgeCount] = v;
+        if (edgeCap64 != null) edgeCap64[edgeCount] = cap;
+        else edgeCap[edgeCount] = (int) cap;
+        return edgeCount++;
+    }
+
+    public boolean isWide() {
+        return edgeCap64 != null;
+    }
+
+    // Switch to 64-bit capacities (done once, on the first capacity above int range)
+    private void widen() {
+        edgeCap64 = new long[edgeU.length];
+        for (int i = 0; i < edgeCount; i++) edgeCap64[i] = edgeCap[i];
+        edgeCap = null;
+    }
+
+    /*
+        Rule 1: edge touching the source is directed away from it.
+        Rule 2: edge touching the sink is directed into it.
+        Rule 3: any other edge is bidirectional.
+    */
+    public int addRawEdge(RawInputEdge raw, int s, int t) {
+        return addUndirectedEdge(addNode(raw.u), addNode(raw.v), raw.weight, s, t);
+    }
+
+    public int addUndirectedEdge(int uIdx, int vIdx, long cap, int s, int t) {
+        if (uIdx == s || vIdx == s) {
+            int from = (uIdx == s) ? uIdx : vIdx;
+            int to = (uIdx == s) ? vIdx : uIdx;
+            addEdge(from, to, cap);
+            return RULE_SOURCE;
+        } else if (uIdx == t || vIdx == t) {
+            int from = (uIdx == t) ? vIdx : uIdx;
+            int to = (uIdx == t) ? uIdx : vIdx;
+            addEdge(from, to, cap);
+            return RULE_SINK;
+        }
+        addEdge(uIdx, vIdx, cap);
+        addEdge(vIdx, uIdx, cap);
+        return RULE_INTERNAL;
+    }
+
+    public static FlowNetwork fromRawEdges(List<RawInputEdge> rawEdges, String source, String sink) {
+        FlowNetwork net = new FlowNetwork();
+        int s = net.addNode(source);
+        int t = net.addNode(sink);
+        for (RawInputEdge raw : rawEdges) net.addRawEdge(raw, s, t);
+        return net;
+    }
+
+    // Plain undirected network (no source/sink rules), e.g. for Gomory-Hu trees
+    public static FlowNetwork undirected(List<String> nodeNames, List<RawInputEdge> rawEdges) {
+        FlowNetwork net = new FlowNetwork();
+        for (String name : nodeNames) net.addNode(name);
+        for (RawInputEdge raw : rawEdges) {
+            int u = net.addNode(raw.u), v = net.addNode(raw.v);
+            net.addEdge(u, v, raw.weight);
+            net.addEdge(v, u, raw.weight);
+        }
+        return net;
+    }
+
+    // Directed lists (DIMACS) keep their arcs; undirected lists (CSV) use the rules above
+    public static FlowNetwork fromEdgeList(EdgeList list, int s, int t) {
+        FlowNetwork net = new FlowNetwork();
+        if (list.names == null) {
+            net.addNodes(list.nodeCount);
+        } else {
+            for (String name : list.names) net.addNode(name);
+        }
+        for (int i = 0; i < list.edgeCount; i++) {
+            if (list.directed) net.addEdge(list.from[i], list.to[i], list.cap(i));
+            else net.addUndirectedEdge(list.from[i], list.to[i], list.cap(i), s, t);
+        }
+        return net;
+    }
+
+    public ResidualGraph build() {
+        return new ResidualGraph(names.size(), edgeCount, edgeU, edgeV, edgeCap, edgeCap64);
+    }
+}
@@ -1,23 +1,36 @@
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.List;
-import java.util.Queue;
 
 public class FlowNetworkSolver extends JFrame {
 
-    private ArrayList<Node> nodes = new ArrayList<>();
-    private ArrayList<RawInputEdge> rawEdges = new ArrayList<>(); 
-    private ArrayList<ArrayList<Edge>> adj = new ArrayList<>(); 
+    private final InputGraph input = new InputGraph(); // Nodes + raw edges with O(1) lookups
+    private final ArrayList<Node> nodes = input.nodes;
+    private final ArrayList<RawInputEdge> rawEdges = input.edges;
+    private ResidualGraph graph; // Null until RUN FLOW converts the raw edges
+    private IncrementalMaxFlow incremental; // Set once a run finishes, repairs flow after edits
+    private int[] rawFirstEdge;  // Raw edge i -> FlowNetwork edges rawFirstEdge[i] .. rawFirstEdge[i + 1] - 1
+    private EdgeList imported;   // Directed (DIMACS) import: solved arc by arc instead of by the GUI rules
+    private int inputEdits;      // Bumped on every change of input, so background results can tell they are stale
     
     private DrawingPanel canvas;
     private JTextArea logArea;
     private JTextField sourceField, sinkField, uField, vField, wField;
-    private JButton runButton, clearButton, resetButton; 
+    private JButton runButton, clearButton, resetButton, treeButton; 
+    private JComboBox<FlowAlgorithm> algorithmBox;
+    private FlowAnimator animator;
+    private ForceLayout layout;
+
+    private static final int AUTO_PLAY_STEPS = 50; // Longer recordings jump to the result, PLAY replays them
+    private int[] pendingRun;                       // {s, t} of a solved run whose playback has not finished
+    private long pendingMaxFlow;
+    private FlowAlgorithm pendingAlgorithm;
 
     public FlowNetworkSolver() {
-        setTitle("Flow Network: Conversion & Edmonds-Karp Visualizer");
+        setTitle("Flow Network: Conversion & Max-Flow Visualizer");
         setSize(1400, 900);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         // Divide Window into 5 Zones: North, South, East, West, Center
@@ -39,6 +52,11 @@ public class FlowNetworkSolver extends JFrame {
         
         addLabel(topPanel, "Sink:", labelFont);
         sinkField = addTextField(topPanel, "T", 3, inputFont);
+
+        addLabel(topPanel, "Algorithm:", labelFont);
+        algorithmBox = new JComboBox<>(FlowAlgorithm.values());
+        algorithmBox.setFont(labelFont);
+        topPanel.add(algorithmBox);
         
         topPanel.add(new JSeparator(SwingConstants.VERTICAL));
         
@@ -54,6 +72,9 @@ public class FlowNetworkSolver extends JFrame {
         // --- BUTTONS ---
         JButton addBtn = createBigButton("ADD / UPDATE", new Color(230, 230, 230));
         topPanel.add(addBtn);
+
+        JButton importBtn = createBigButton("IMPORT", new Color(230, 230, 230));
+        topPanel.add(importBtn);
         
         runButton = createBigButton("RUN FLOW", new Color(100, 255, 100));
         topPanel.add(runButton);
@@ -61,6 +82,9 @@ public class FlowNetworkSolver extends JFrame {
         resetButton = createBigButton("RESET FLOW", new Color(100, 200, 255));
         topPanel.add(resetButton);
 
+        treeButton = createBigButton("CUT TREE", new Color(200, 170, 255));
+        topPanel.add(treeButton);
+
         clearButton = createBigButton("CLEAR ALL", new Color(255, 100, 100));
         clearButton.setForeground(Color.WHITE);
         topPanel.add(clearButton);
@@ -68,8 +92,23 @@ public class FlowNetworkSolver extends JFrame {
         add(topPanel, BorderLayout.NORTH);
 
         // --- CENTER PANEL (Drawing) ---
-        canvas = new DrawingPanel(nodes, adj, rawEdges);
+        canvas = new DrawingPanel(input);
         add(canvas, BorderLayout.CENTER);
+        layout = new ForceLayout(input, canvas);
+
+        // --- BOTTOM PANEL (Playback of the last run) ---
+        animator = new FlowAnimator(canvas, new FlowAnimator.Listener() {
+            @Override
+            public void onStep(int step) {
+                logStep(step);
+            }
+
+            @Override
+            public void onFinished() {
+                finishRun();
+            }
+        });
+        add(animator, BorderLayout.SOUTH);
 
         // --- RIGHT PANEL (Logs) ---
         logArea = new JTextArea();
@@ -87,25 +126,29 @@ public class FlowNetworkSolver extends JFrame {
 
         // Mapping Buttons to Class Functions
         addBtn.addActionListener(e -> addInputEdge());
-        runButton.addActionListener(e -> new Thread(this::executeFullProcess).start());
+        importBtn.addActionListener(e -> importEdgeList());
+        runButton.addActionListener(e -> executeFullProcess());
         clearButton.addActionListener(e -> clearGraph());
         resetButton.addActionListener(e -> resetFlow());
+        treeButton.addActionListener(e -> buildCutTree());
     }
 
     private void resetFlow() {
-        adj.clear();
+        setGraph(null);
         logArea.setText(">>> Graph Reset. Ready to Edit.\n");
         runButton.setEnabled(true);
-        canvas.repaint();
+        canvas.graphChanged();
     }
 
     private void clearGraph() {
-        nodes.clear();
-        rawEdges.clear();
-        adj.clear();
+        input.clear();
+        inputEdits++;
+        imported = null;
+        layout.reset();
+        setGraph(null);
         logArea.setText("");
         runButton.setEnabled(true);
-        canvas.repaint();
+        canvas.graphChanged();
     }
 
     // GUI Helper Functions
@@ -140,34 +183,53 @@ public class FlowNetworkSolver extends JFrame {
         if (u.isEmpty() || v.isEmpty() || wStr.isEmpty()) return;
 
         try {
-            int weight = Integer.parseInt(wStr);
-            boolean found = false;
-
-            for(RawInputEdge e : rawEdges) {
-                if((e.u.equals(u) && e.v.equals(v)) || (e.u.equals(v) && e.v.equals(u))) {
-                    e.weight = weight;
-                    e.u = u; e.v = v;
-                    logArea.append("Updated: " + u + "-" + v + " (" + weight + ")\n");
-                    found = true;
-                    break;
+            long weight = Long.parseLong(wStr);
+            boolean added = input.putEdge(u, v, weight);
+            inputEdits++;
+            canvas.setCutTree(null); // Tree no longer matches the input
+
+            // Directed import: the edit is the arc u -> v, the drawn edge only mirrors it
+            int arc = -1;
+            if (imported != null) {
+                int uIdx = input.indexOf(u), vIdx = input.indexOf(v);
+                arc = imported.findArc(uIdx, vIdx);
+                added = arc == -1;
+                if (added) {
+                    imported.nodeCount = nodes.size();
+                    arc = imported.addEdge(uIdx, vIdx, weight);
+                } else {
+                    imported.setCap(arc, weight);
                 }
             }
+            String edge = u + (imported != null ? "->" : "-") + v;
 
-            if(!found) {
-                rawEdges.add(new RawInputEdge(u, v, weight));
-                getOrCreateNodeIndex(u);
-                getOrCreateNodeIndex(v);
+            if(!added) {
+                logArea.append("Updated: " + edge + " (" + weight + ")\n");
+            } else {
                 recalculateNodePositions();
-                logArea.append("Added: " + u + "-" + v + " (" + weight + ")\n");
+                logArea.append("Added: " + edge + " (" + weight + ")\n");
             }
             
-            if (!adj.isEmpty()) {
-                adj.clear();
+            if (graph != null && !added && incremental != null && (graph.wide || weight <= Integer.MAX_VALUE)) {
+                // Same topology: keep the old flow and repair it around the changed edge
+                long maxFlow = incremental.maxFlow();
+                if (imported != null) {
+                    maxFlow = incremental.setEdgeCapacity(arc, weight);
+                } else {
+                    int pos = input.findEdge(u, v);
+                    for (int id = rawFirstEdge[pos]; id < rawFirstEdge[pos + 1]; id++) {
+                        maxFlow = incremental.setEdgeCapacity(id, weight);
+                    }
+                }
+                logArea.append(">>> Flow updated incrementally. MAX FLOW: " + maxFlow + "\n");
+                showMinCut(incremental.graph(), incremental.source());
+            } else if (graph != null) {
+                setGraph(null);
                 runButton.setEnabled(true);
                 logArea.append(">>> Edited. Resetting Flow.\n");
             }
 
-            canvas.repaint();
+            canvas.graphChanged();
             uField.setText(""); vField.setText(""); wField.setText(""); uField.requestFocus();
             
         } catch (NumberFormatException ex) {
@@ -175,12 +237,170 @@ public class FlowNetworkSolver extends JFrame {
         }
     }
 
-    // Edman Carp Algorithm Implementation with Logging and Animation
+    // Import result, built off the EDT: the drawn graph plus, for DIMACS, the directed arcs
+    private static class Imported {
+        EdgeList list;
+        InputGraph view;
+    }
+
+    /*
+        Bulk Import: CSV (from,to,capacity) or DIMACS max-flow file. Parsing and building the
+        GUI model both run on a worker under the progress bar (parse 0-80 %, model 80-100 %).
+        CSV edges become RawInputEdges like typed ones. DIMACS arcs are directed, so the
+        network is kept as the EdgeList (parallel arcs summed) and solved as it is; the
+        RawInputEdges then only draw it.
+    */
+    private void importEdgeList() {
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path path = chooser.getSelectedFile().toPath();
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Importing " + path.getFileName(), null, 0, 100);
+        SwingWorker<Imported, Void> worker = new SwingWorker<Imported, Void>() {
+            @Override
+            protected Imported doInBackground() throws Exception {
+                Imported result = new Imported();
+                EdgeList list = EdgeListLoader.load(path, EdgeListLoader.detectFormat(path),
+                        (done, total) -> setProgress(total == 0 ? 80 : (int) (done * 80 / total)));
+                result.list = list;
+                if (list.directed) list.mergeParallel();
+                result.view = new InputGraph(list.nodeCount, list.edgeCount);
+
+                // Names upper-cased like typed input, once per node. DIMACS nodes are created in id
+                // order, so GUI indices are the arc endpoints; CSV names may merge ("a" and "A")
+                int[] gui = new int[list.nodeCount];
+                for (int i = 0; i < gui.length; i++) gui[i] = result.view.getOrCreateNode(list.name(i).toUpperCase());
+                for (int i = 0; i < list.edgeCount; i++) {
+                    result.view.putEdge(gui[list.from[i]], gui[list.to[i]], list.cap(i));
+                    if ((i & 0xFFFF) == 0) setProgress(80 + (int) (20L * i / list.edgeCount));
+                }
+                return result;
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                try {
+                    showImportedGraph(get());
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(FlowNetworkSolver.this, "Import failed: " + cause.getMessage());
+                }
+            }
+        };
+        worker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) monitor.setProgress((Integer) evt.getNewValue());
+        });
+        worker.execute();
+    }
+
+    // Imported graph replaces the current one
+    private void showImportedGraph(Imported result) {
+        EdgeList list = result.list;
+        input.replaceWith(result.view);
+        inputEdits++;
+        imported = list.directed ? list : null;
+        layout.reset();
+        setGraph(null);
+        if (list.source != -1) sourceField.setText(list.name(list.source).toUpperCase());
+        if (list.sink != -1) sinkField.setText(list.name(list.sink).toUpperCase());
+
+        recalculateNodePositions();
+        runButton.setEnabled(true);
+        logArea.setText(">>> Imported " + list.edgeCount + (list.directed ? " directed arcs, " : " edges, ") + nodes.size() + " nodes.\n");
+        canvas.graphChanged();
+    }
+
+    // Min cut straight from the final residual graph: logged and drawn as an overlay
+    private void showMinCut(ResidualGraph g, int s) {
+        MinCut cut = MinCut.compute(g, s);
+        StringBuilder sb = new StringBuilder("MIN CUT (capacity " + cut.capacity + "):\n");
+        for (int a : cut.cutArcs) {
+            sb.append("  ").append(nodes.get(g.tail(a)).name).append(" -> ").append(nodes.get(g.heads[a]).name)
+              .append(" (").append(g.capacity(a)).append(")\n");
+        }
+        sb.append("  Source side: {");
+        for (int i = 0; i < g.n; i++) if (cut.sourceSide[i]) sb.append(' ').append(nodes.get(i).name);
+        sb.append(" }\n");
+        logArea.append(sb.toString());
+        canvas.setMinCut(cut);
+        canvas.repaint();
+    }
+
+    /*
+        All-pairs min cuts: Gomory-Hu tree of the undirected input (source/sink rules not applied).
+        The graph is snapshotted here on the EDT and the tree built on a worker; if the
+        input is edited meanwhile, the finished tree no longer matches it and is dropped.
+    */
+    private void buildCutTree() {
+        if (nodes.size() < 2) return;
+        if (imported != null) {
+            logArea.append("\nCut trees need an undirected graph, the imported one is directed.\n");
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        for (Node node : nodes) names.add(node.name);
+        ResidualGraph undirected = FlowNetwork.undirected(names, rawEdges).build();
+        FlowAlgorithm algorithm = (FlowAlgorithm) algorithmBox.getSelectedItem();
+        int edits = inputEdits;
+
+        logArea.append("\n=== GOMORY-HU TREE (" + algorithm + ") ===\n");
+        treeButton.setEnabled(false);
+        SwingWorker<GomoryHuTree, Void> worker = new SwingWorker<GomoryHuTree, Void>() {
+            @Override
+            protected GomoryHuTree doInBackground() {
+                return GomoryHuTree.build(undirected, algorithm);
+            }
+
+            @Override
+            protected void done() {
+                treeButton.setEnabled(true);
+                GomoryHuTree tree;
+                try {
+                    tree = get();
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    logArea.append("Error: " + cause.getMessage() + "\n");
+                    return;
+                }
+                if (inputEdits != edits) {
+                    logArea.append("  Graph edited while building, tree discarded.\n");
+                    return;
+                }
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < tree.n; i++) {
+                    if (!tree.isRoot(i)) sb.append("  ").append(names.get(i)).append(" - ").append(names.get(tree.parent[i])).append(" : ").append(tree.weight[i]).append("\n");
+                }
+
+                // Query example: the pair currently in the Source/Sink fields
+                int s = input.indexOf(sourceField.getText().toUpperCase().trim());
+                int t = input.indexOf(sinkField.getText().toUpperCase().trim());
+                if (s != -1 && t != -1 && s != t) {
+                    sb.append("  Min cut ").append(names.get(s)).append(" | ").append(names.get(t)).append(" = ").append(tree.minCut(s, t)).append("\n");
+                }
+                logArea.append(sb.toString());
+                canvas.setCutTree(tree);
+                canvas.repaint();
+            }
+        };
+        worker.execute();
+    }
+
+    private void setGraph(ResidualGraph g) {
+        graph = g;
+        incremental = null;
+        pendingRun = null;
+        animator.unload();
+        canvas.setCutTree(null);
+        canvas.setGraph(g);
+    }
+
+    // Max Flow: conversion on the EDT, solve at full speed on a worker, then replay the recording
     private void executeFullProcess() {
         String sName = sourceField.getText().toUpperCase().trim();
         String tName = sinkField.getText().toUpperCase().trim();
-        int s = getNodeIndex(sName);
-        int t = getNodeIndex(tName);
+        int s = input.indexOf(sName);
+        int t = input.indexOf(tName);
 
         if (s == -1 || t == -1) {
             logArea.append("\nError: Source/Sink missing!\n");
@@ -188,142 +408,138 @@ public class FlowNetworkSolver extends JFrame {
         }
         runButton.setEnabled(false);
 
-        logArea.append("\n=== CONVERTING... ===\n");
-        adj.clear();
-        for (int i = 0; i < nodes.size(); i++) adj.add(new ArrayList<>());
-
-        for (RawInputEdge raw : rawEdges) {
-            int uIdx = getNodeIndex(raw.u);
-            int vIdx = getNodeIndex(raw.v);
-            int cap = raw.weight;
-
-            if (uIdx == s || vIdx == s) {
-                int from = (uIdx == s) ? uIdx : vIdx;
-                int to = (uIdx == s) ? vIdx : uIdx;
-                addDirectedEdge(from, to, cap);
-                // >>> LOG ADDED <<<
-                logArea.append(" Rule 1 (Source): Fixed " + nodes.get(from).name + " -> " + nodes.get(to).name + "\n");
-            } else if (uIdx == t || vIdx == t) {
-                int from = (uIdx == t) ? vIdx : uIdx;
-                int to = (uIdx == t) ? uIdx : vIdx;
-                addDirectedEdge(from, to, cap);
-                // >>> LOG ADDED <<<
-                logArea.append(" Rule 2 (Sink): Fixed " + nodes.get(from).name + " -> " + nodes.get(to).name + "\n");
+        FlowNetwork net;
+        if (imported != null) {
+            // Directed import: node ids are the GUI indices, arc i is FlowNetwork edge i
+            logArea.append("\n=== DIRECTED NETWORK: " + imported.edgeCount + " arcs as imported ===\n");
+            net = FlowNetwork.fromEdgeList(imported, s, t);
+            rawFirstEdge = null;
+        } else {
+            logArea.append("\n=== CONVERTING... ===\n");
+            net = convert(s, t);
+        }
+        solve(net.build(), s, t);
+    }
+
+    // GUI rules (FlowNetwork.addRawEdge) applied to the typed edges, each logged
+    private FlowNetwork convert(int s, int t) {
+        // Same node order as the GUI list, so indices match DrawingPanel
+        FlowNetwork net = new FlowNetwork();
+        for (Node node : nodes) net.addNode(node.name);
+
+        int[] firstEdge = new int[rawEdges.size() + 1];
+        for (int i = 0; i < rawEdges.size(); i++) {
+            RawInputEdge raw = rawEdges.get(i);
+            firstEdge[i] = net.edgeCount();
+            int rule = net.addRawEdge(raw, s, t);
+            int uIdx = net.indexOf(raw.u), vIdx = net.indexOf(raw.v);
+            // >>> LOG ADDED <<<
+            if (rule == FlowNetwork.RULE_SOURCE) {
+                logArea.append(" Rule 1 (Source): Fixed " + nodes.get(s).name + " -> " + nodes.get(uIdx == s ? vIdx : uIdx).name + "\n");
+            } else if (rule == FlowNetwork.RULE_SINK) {
+                logArea.append(" Rule 2 (Sink): Fixed " + nodes.get(uIdx == t ? vIdx : uIdx).name + " -> " + nodes.get(t).name + "\n");
             } else {
-                addDirectedEdge(uIdx, vIdx, cap);
-                addDirectedEdge(vIdx, uIdx, cap);
-                // >>> LOG ADDED <<<
                 logArea.append(" Rule 3 (Internal): " + raw.u + " <-> " + raw.v + " (Bidirectional)\n");
             }
         }
+        firstEdge[rawEdges.size()] = net.edgeCount();
+        rawFirstEdge = firstEdge;
+        return net;
+    }
+
+    private void solve(ResidualGraph g, int s, int t) {
+        setGraph(g);
+        // The solver writes g's flow off the EDT; the canvas shows an all-zero recording until it is done
+        canvas.setDisplayFlow(new long[g.m]);
         canvas.repaint();
-        sleep(1000);
 
-        logArea.append("\n=== RUNNING MAX FLOW ===\n");
-        int maxFlow = 0;
-        
-        while (true) {
-            Edge[] parentEdge = new Edge[nodes.size()];
-            Arrays.fill(parentEdge, null);
-            Queue<Integer> q = new LinkedList<>();
-            q.add(s);
-            boolean pathFound = false;
-            
-            while (!q.isEmpty()) {
-                int u = q.poll();
-                if (u == t) { pathFound = true; break; }
-                for (Edge e : adj.get(u)) {
-                    if (parentEdge[e.v] == null && e.v != s && e.capacity > e.flow) {
-                        parentEdge[e.v] = e;
-                        q.add(e.v);
-                    }
-                }
+        FlowAlgorithm algorithm = (FlowAlgorithm) algorithmBox.getSelectedItem();
+        logArea.append("\n=== RUNNING MAX FLOW (" + algorithm + ") ===\n");
+        FlowEventLog recording = new FlowEventLog();
+        SwingWorker<FlowResult, Void> worker = new SwingWorker<FlowResult, Void>() {
+            private long millis;
+
+            @Override
+            protected FlowResult doInBackground() {
+                long start = System.nanoTime();
+                FlowResult result = algorithm.create(recording).solve(g, s, t);
+                millis = (System.nanoTime() - start) / 1_000_000;
+                return result;
             }
 
-            // Algorithm Stopping Condition
-            if (!pathFound) {
-                logArea.append("----------------------\n");
-                logArea.append("Searching for path...\n");
-                logArea.append(">>> NO MORE PATHS FOUND.\n"); 
-                logArea.append("----------------------\n");
-                break;
+            @Override
+            protected void done() {
+                if (graph != g) return; // Reset or edited while solving
+                long maxFlow;
+                try {
+                    maxFlow = get().maxFlow;
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    logArea.append("Error: " + cause.getMessage() + "\n");
+                    setGraph(null);
+                    runButton.setEnabled(true);
+                    return;
+                }
+                logArea.append("Solved in " + millis + " ms, " + recording.steps() + " augmenting paths recorded.\n\n");
+                animator.load(g, recording, recording.steps() <= AUTO_PLAY_STEPS);
+                pendingRun = new int[] { s, t };
+                pendingMaxFlow = maxFlow;
+                pendingAlgorithm = algorithm;
             }
+        };
+        worker.execute();
+    }
 
-            int pathFlow = Integer.MAX_VALUE;
-            int curr = t;
-            List<Edge> pathEdges = new ArrayList<>();
-            
-            // Reconstruct Path for Printing
-            List<String> pathNames = new ArrayList<>();
-            pathNames.add(nodes.get(t).name);
-
-            while (curr != s) {
-                Edge e = parentEdge[curr];
-                pathEdges.add(e);
-                pathFlow = Math.min(pathFlow, e.capacity - e.flow);
-                curr = e.u;
-                pathNames.add(nodes.get(curr).name);
-            }
-            Collections.reverse(pathNames);
-            String pathString = String.join(" -> ", pathNames);
-            
-            for (Edge e : pathEdges) e.isHighlighted = true;
-            canvas.repaint();
-            sleep(1000);
-
-            for (Edge e : pathEdges) {
-                e.flow += pathFlow;
-                Edge reverse = adj.get(e.v).get(e.reverseEdgeIndex);
-                reverse.flow -= pathFlow; 
-                e.isHighlighted = false;
-            }
-            maxFlow += pathFlow;
-            
-            // Log Printing
-            logArea.append("Path Found:\n  " + pathString + "\n");
-            logArea.append("  Flow Added: " + pathFlow + "\n");
-            logArea.append("  Total Flow: " + maxFlow + "\n\n");
-            
-            canvas.repaint();
-            sleep(800);
+    // Playback reached event `step`: log it like the old step-by-step output
+    private void logStep(int step) {
+        FlowEventLog log = animator.log();
+        int start = log.pathStart(step), end = log.pathStart(step + 1);
+        if (start == end) return;
+
+        // Reconstruct Path for Printing (path runs sink -> source)
+        List<String> pathNames = new ArrayList<>();
+        pathNames.add(nodes.get(graph.heads[log.arc(start)]).name);
+        for (int k = start; k < end; k++) pathNames.add(nodes.get(graph.tail(log.arc(k))).name);
+        Collections.reverse(pathNames);
+
+        // Log Printing
+        logArea.append("Path Found:\n  " + String.join(" -> ", pathNames) + "\n");
+        logArea.append("  Flow Added: " + log.delta(step) + "\n");
+        logArea.append("  Total Flow: " + log.totalAfter(step) + "\n\n");
+    }
+
+    // Playback finished (or skipped): final summary, min cut, and incremental repair from here on
+    private void finishRun() {
+        if (pendingRun == null) return;
+        int s = pendingRun[0], t = pendingRun[1];
+        pendingRun = null;
+
+        // Algorithm Stopping Condition
+        logArea.append("----------------------\n");
+        if (pendingAlgorithm == FlowAlgorithm.PUSH_RELABEL) {
+            logArea.append(">>> NO ACTIVE NODES LEFT.\n"); // Push-relabel works node by node, not path by path
+        } else {
+            logArea.append("Searching for path...\n");
+            logArea.append(">>> NO MORE PATHS FOUND.\n");
         }
+        logArea.append("----------------------\n");
 
         logArea.append("**********************\n");
-        logArea.append(" MAX FLOW: " + maxFlow + "\n");
+        logArea.append(" MAX FLOW: " + pendingMaxFlow + "\n");
         logArea.append("**********************\n");
-        JOptionPane.showMessageDialog(this, "Max Flow: " + maxFlow);
-    }
+        showMinCut(graph, s);
 
-    private void addDirectedEdge(int u, int v, int cap) {
-        Edge forward = new Edge(u, v, cap);
-        Edge backward = new Edge(v, u, 0);
-        forward.reverseEdgeIndex = adj.get(v).size();
-        backward.reverseEdgeIndex = adj.get(u).size();
-        adj.get(u).add(forward);
-        adj.get(v).add(backward);
+        // Flow in graph is the worker's max flow: taken over as it is for later edits, not solved again
+        incremental = new IncrementalMaxFlow(graph, s, t, pendingAlgorithm.create(null), pendingMaxFlow);
+        JOptionPane.showMessageDialog(this, "Max Flow: " + pendingMaxFlow);
     }
 
-    private int getOrCreateNodeIndex(String name) {
-        int idx = getNodeIndex(name);
-        if (idx == -1) { nodes.add(new Node(name)); return nodes.size() - 1; }
-        return idx;
-    }
-    private int getNodeIndex(String name) {
-        for (int i = 0; i < nodes.size(); i++) if (nodes.get(i).name.equals(name)) return i;
-        return -1;
-    }
     
+    // Background force-directed layout, warm-started from the current positions
     private void recalculateNodePositions() {
-        int n = nodes.size();
-        int cx = canvas.getWidth() / 2, cy = canvas.getHeight() / 2;
-        int r = 200; 
-        for (int i = 0; i < n; i++) {
-            double angle = 2 * Math.PI * i / n - Math.PI / 2;
-            nodes.get(i).x = cx + (int) (r * Math.cos(angle));
-            nodes.get(i).y = cy + (int) (r * Math.sin(angle));
-        }
+        layout.restart();
     }
-    private void sleep(int ms) { try { Thread.sleep(ms); } catch (Exception e) {} }
+
     // Run GUI on Event Dispatch Thread (Swing GUI Main Worker Thread)
     public static void main(String[] args) { SwingUtilities.invokeLater(() -> new FlowNetworkSolver().setVisible(true)); }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+public class FlowResult {
+    public final long maxFlow;
+    public final long[] edgeFlows; // Flow on each forward edge, indexed by FlowNetwork edge id
+    public final int augmentations;
+
+    public FlowResult(long maxFlow, long[] edgeFlows, int augmentations) {
+        this.maxFlow = maxFlow;
+        this.edgeFlows = edgeFlows;
+        this.augmentations = augmentations;
+    }
+
+    static FlowResult of(ResidualGraph g, long maxFlow, int augmentations) {
+        long[] flows = new long[g.edgeArc.length];
+        for (int i = 0; i < flows.length; i++) flows[i] = g.edgeFlow(i);
+        return new FlowResult(maxFlow, flows, augmentations);
+    }
+}
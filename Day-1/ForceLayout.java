@@ -0,0 +1,276 @@
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+    Force-directed layout (Fruchterman-Reingold forces, Barnes-Hut repulsion).
+    Runs on one background thread on its own position arrays; the EDT only sees results
+    through invokeLater, which copies them into Node.x/y and repaints.
+
+    restart() is called on the EDT after every edit: nodes already placed keep their
+    position (warm start), new nodes start next to their placed neighbours, and a
+    running layout is abandoned for the new one.
+*/
+public class ForceLayout {
+    private static final double IDEAL = 120;        // Preferred edge length in pixels
+    private static final double THETA = 0.8;        // Barnes-Hut opening angle
+    private static final int MAX_ITERATIONS = 400;
+    private static final long PUBLISH_MS = 40;      // At most ~25 repaints per second while running
+
+    private final InputGraph input;
+    private final DrawingPanel canvas;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "force-layout");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile int generation;  // Bumped by restart(), a running layout stops when it changes
+    private int placed;               // Nodes 0 .. placed - 1 already have a layout position (EDT only)
+    private final Random random = new Random(42);
+
+    public ForceLayout(InputGraph input, DrawingPanel canvas) {
+        this.input = input;
+        this.canvas = canvas;
+    }
+
+    // EDT: snapshot positions + topology and (re)start the background layout
+    public void restart() {
+        ArrayList<Node> nodes = input.nodes;
+        int n = nodes.size();
+        double cx = canvas.getWidth() / 2.0, cy = canvas.getHeight() / 2.0;
+
+        int[] from = new int[input.edges.size()], to = new int[input.edges.size()];
+        int m = 0;
+        for (RawInputEdge e : input.edges) {
+            int u = input.indexOf(e.u), v = input.indexOf(e.v);
+            if (u == -1 || v == -1 || u == v) continue;
+            from[m] = u;
+            to[m++] = v;
+        }
+
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < placed; i++) {
+            x[i] = nodes.get(i).x;
+            y[i] = nodes.get(i).y;
+        }
+        // New nodes: average of already placed neighbours, otherwise a random spot around the center
+        double[] sumX = new double[n], sumY = new double[n];
+        int[] count = new int[n];
+        for (int k = 0; k < m; k++) {
+            int u = from[k], v = to[k];
+            if (v < placed && u >= placed) { sumX[u] += x[v]; sumY[u] += y[v]; count[u]++; }
+            if (u < placed && v >= placed) { sumX[v] += x[u]; sumY[v] += y[u]; count[v]++; }
+        }
+        double spread = IDEAL * Math.sqrt(Math.max(1, n - placed));
+        for (int i = placed; i < n; i++) {
+            if (count[i] > 0) {
+                x[i] = sumX[i] / count[i] + (random.nextDouble() - 0.5) * IDEAL;
+                y[i] = sumY[i] / count[i] + (random.nextDouble() - 0.5) * IDEAL;
+            } else {
+                x[i] = cx + (random.nextDouble() - 0.5) * spread;
+                y[i] = cy + (random.nextDouble() - 0.5) * spread;
+            }
+        }
+        boolean warm = placed > 0;
+        placed = n;
+
+        int gen = ++generation;
+        publish(gen, x.clone(), y.clone()); // New nodes show up at their start position right away
+        int edges = m;
+        worker.execute(() -> run(gen, x, y, from, to, edges, cx, cy, warm));
+    }
+
+    // EDT: the input graph was cleared, forget all positions
+    public void reset() {
+        generation++;
+        placed = 0;
+    }
+
+    private void run(int gen, double[] x, double[] y, int[] from, int[] to, int m, double cx, double cy, boolean warm) {
+        int n = x.length;
+        if (n == 0) return;
+        double[] dx = new double[n], dy = new double[n];
+        QuadTree tree = new QuadTree(n);
+        // A warm start only needs to settle, so it begins cooler
+        double temperature = warm ? IDEAL : IDEAL * Math.sqrt(n);
+        double k2 = IDEAL * IDEAL;
+        long lastPublish = System.currentTimeMillis();
+
+        for (int iter = 0; iter < MAX_ITERATIONS && generation == gen; iter++) {
+            // Repulsion between all pairs, approximated through the quadtree: O(n log n)
+            tree.build(x, y);
+            for (int i = 0; i < n; i++) tree.repulsion(i, x[i], y[i], k2, dx, dy);
+
+            // Attraction along edges
+            for (int e = 0; e < m; e++) {
+                int u = from[e], v = to[e];
+                double ex = x[u] - x[v], ey = y[u] - y[v];
+                double d = Math.sqrt(ex * ex + ey * ey) + 0.01;
+                double f = d / IDEAL; // d^2 / k, divided by d for the unit vector
+                dx[u] -= ex * f; dy[u] -= ey * f;
+                dx[v] += ex * f; dy[v] += ey * f;
+            }
+
+            // Weak gravity keeps disconnected parts on screen, then move at most `temperature`
+            double moved = 0;
+            for (int i = 0; i < n; i++) {
+                dx[i] += (cx - x[i]) * 0.01;
+                dy[i] += (cy - y[i]) * 0.01;
+                double len = Math.sqrt(dx[i] * dx[i] + dy[i] * dy[i]);
+                if (len > 0) {
+                    double step = Math.min(len, temperature);
+                    x[i] += dx[i] / len * step;
+                    y[i] += dy[i] / len * step;
+                    moved += step;
+                }
+                dx[i] = 0;
+                dy[i] = 0;
+            }
+            temperature = Math.max(1, temperature * 0.95);
+
+            long now = System.currentTimeMillis();
+            if (now - lastPublish >= PUBLISH_MS) {
+                publish(gen, x.clone(), y.clone());
+                lastPublish = now;
+            }
+            if (moved / n < 0.5) break; // Settled
+        }
+        publish(gen, x, y);
+    }
+
+    private void publish(int gen, double[] x, double[] y) {
+        SwingUtilities.invokeLater(() -> {
+            ArrayList<Node> nodes = input.nodes;
+            if (gen != generation || nodes.size() != x.length) return; // Stale result
+            for (int i = 0; i < x.length; i++) {
+                nodes.get(i).x = (int) Math.round(x[i]);
+                nodes.get(i).y = (int) Math.round(y[i]);
+            }
+            canvas.graphChanged();
+        });
+    }
+
+    /*
+        Array-based quadtree for Barnes-Hut: cell c covers a square (left, top, size),
+        stores total mass and mass-weighted position, and either one body or 4 children.
+        Rebuilt every iteration into the same arrays, so no allocation per step.
+    */
+    private static class QuadTree {
+        private int cells;
+        private double[] left, top, size, mass, sumX, sumY;
+        private int[] body;       // Body index, -1 empty, -2 internal cell
+        private int[] child;      // 4 per cell
+        private int[] stack;
+
+        QuadTree(int n) {
+            allocate(4 * n + 16);
+            stack = new int[64];
+        }
+
+        private void allocate(int capacity) {
+            left = new double[capacity];
+            top = new double[capacity];
+            size = new double[capacity];
+            mass = new double[capacity];
+            sumX = new double[capacity];
+            sumY = new double[capacity];
+            body = new int[capacity];
+            child = new int[4 * capacity];
+        }
+
+        private int newCell(double l, double t, double s) {
+            if (cells == body.length) {
+                int capacity = 2 * cells;
+                left = Arrays.copyOf(left, capacity);
+                top = Arrays.copyOf(top, capacity);
+                size = Arrays.copyOf(size, capacity);
+                mass = Arrays.copyOf(mass, capacity);
+                sumX = Arrays.copyOf(sumX, capacity);
+                sumY = Arrays.copyOf(sumY, capacity);
+                body = Arrays.copyOf(body, capacity);
+                child = Arrays.copyOf(child, 4 * capacity);
+            }
+            int c = cells++;
+            left[c] = l; top[c] = t; size[c] = s;
+            mass[c] = 0; sumX[c] = 0; sumY[c] = 0;
+            body[c] = -1;
+            return c;
+        }
+
+        void build(double[] x, double[] y) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]); maxX = Math.max(maxX, x[i]);
+                minY = Math.min(minY, y[i]); maxY = Math.max(maxY, y[i]);
+            }
+            cells = 0;
+            newCell(minX, minY, Math.max(maxX - minX, maxY - minY) + 1);
+            for (int i = 0; i < x.length; i++) insert(i, x, y);
+        }
+
+        private void insert(int i, double[] x, double[] y) {
+            int c = 0;
+            while (true) {
+                mass[c] += 1;
+                sumX[c] += x[i];
+                sumY[c] += y[i];
+                if (body[c] == -1 && mass[c] == 1) { // Empty leaf
+                    body[c] = i;
+                    return;
+                }
+                if (body[c] >= 0) {
+                    if (size[c] < 1e-3) return; // (Almost) same point: just add the mass to this leaf
+                    // Split the leaf, push its body one level down
+                    int old = body[c];
+                    body[c] = -2;
+                    double half = size[c] / 2;
+                    for (int q = 0; q < 4; q++) {
+                        int nc = newCell(left[c] + (q & 1) * half, top[c] + (q >> 1) * half, half); // May grow `child`
+                        child[4 * c + q] = nc;
+                    }
+                    int oc = child[4 * c + quadrant(c, x[old], y[old])];
+                    mass[oc] = 1; sumX[oc] = x[old]; sumY[oc] = y[old]; body[oc] = old;
+                }
+                c = child[4 * c + quadrant(c, x[i], y[i])];
+            }
+        }
+
+        private int quadrant(int c, double px, double py) {
+            double half = size[c] / 2;
+            int q = px >= left[c] + half ? 1 : 0;
+            if (py >= top[c] + half) q += 2;
+            return q;
+        }
+
+        // Adds the repulsive force on body i (k^2 / d per unit of mass) into dx/dy
+        void repulsion(int i, double px, double py, double k2, double[] dx, double[] dy) {
+            int sp = 0;
+            stack[sp++] = 0;
+            while (sp > 0) {
+                int c = stack[--sp];
+                if (mass[c] == 0 || body[c] == i && mass[c] == 1) continue;
+                double mx = sumX[c] / mass[c], my = sumY[c] / mass[c];
+                double ex = px - mx, ey = py - my;
+                double d2 = ex * ex + ey * ey;
+                if (body[c] != -2 || size[c] * size[c] < THETA * THETA * d2) {
+                    // Leaf or far enough away: treat the whole cell as one body at its center of mass
+                    double m = body[c] == i ? mass[c] - 1 : mass[c];
+                    if (d2 < 0.01) { // Coincident: push apart in a fixed direction
+                        ex = 0.1 * (i % 7 - 3) + 0.05;
+                        ey = 0.1 * (i % 5 - 2) + 0.05;
+                        d2 = ex * ex + ey * ey;
+                    }
+                    double f = k2 * m / d2; // (k^2 / d) / d for the unit vector
+                    dx[i] += ex * f;
+                    dy[i] += ey * f;
+                } else {
+                    if (sp + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                    for (int q = 0; q < 4; q++) stack[sp++] = child[4 * c + q];
+                }
+            }
+        }
+    }
+}
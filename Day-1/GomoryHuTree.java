@@ -0,0 +1,127 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+    Gomory-Hu (cut) tree for an undirected network, Gusfield's variant:
+    n - 1 max-flow calls on the original graph, no graph contraction.
+    The min cut between any u and v is the lightest edge on the tree path u .. v.
+
+    Parallelism: a flow (s, t) depends only on s and t, so the next few pairs
+    (s, parent[s]) are solved speculatively in parallel. They are applied in
+    order; a pair whose parent changed meanwhile is simply solved again.
+    Each solve borrows a flow copy from a per-build pool, released with the build.
+*/
+public class GomoryHuTree {
+    public final int n;
+    public final int[] parent;     // parent[root] == root
+    public final long[] weight;    // Min cut between i and parent[i]
+    private final int[] depth;
+
+    private GomoryHuTree(int[] parent, long[] weight) {
+        this.n = parent.length;
+        this.parent = parent;
+        this.weight = weight;
+        this.depth = new int[n];
+        Arrays.fill(depth, -1);
+        for (int i = 0; i < n; i++) depthOf(i);
+    }
+
+    // The graph must be undirected: every edge added in both directions with equal capacity
+    public static GomoryHuTree build(ResidualGraph graph, FlowAlgorithm algorithm, ForkJoinPool pool) {
+        int n = graph.n;
+        int[] parent = new int[n];
+        long[] weight = new long[n];
+        if (n <= 1) return new GomoryHuTree(parent, weight);
+
+        int window = Math.max(1, pool.getParallelism() * 2);
+        Queue<ResidualGraph> spare = new ConcurrentLinkedQueue<>();
+        List<ForkJoinTask<MinCut>> tasks = new ArrayList<>(window);
+        int[] sinkUsed = new int[window];
+
+        for (int first = 1; first < n; first += window) {
+            int count = Math.min(window, n - first);
+            tasks.clear();
+            for (int k = 0; k < count; k++) {
+                int s = first + k, t = parent[s];
+                sinkUsed[k] = t;
+                tasks.add(pool.submit(() -> cut(graph, spare, s, t, algorithm)));
+            }
+            for (int k = 0; k < count; k++) {
+                int s = first + k;
+                MinCut cut = tasks.get(k).join();
+                if (parent[s] != sinkUsed[k]) cut = cut(graph, spare, s, parent[s], algorithm); // Speculation missed
+                apply(parent, weight, s, cut);
+            }
+        }
+        return new GomoryHuTree(parent, weight);
+    }
+
+    public static GomoryHuTree build(ResidualGraph graph, FlowAlgorithm algorithm) {
+        return build(graph, algorithm, ForkJoinPool.commonPool());
+    }
+
+    private static MinCut cut(ResidualGraph graph, Queue<ResidualGraph> spare, int s, int t, FlowAlgorithm algorithm) {
+        ResidualGraph g = spare.poll();
+        if (g == null) g = graph.withFreshFlow();
+        try {
+            g.resetFlow();
+            algorithm.create(null).solve(g, s, t);
+            return MinCut.compute(g, s);
+        } finally {
+            spare.offer(g);
+        }
+    }
+
+    // Gusfield's update after the min cut between s and t = parent[s]
+    private static void apply(int[] parent, long[] weight, int s, MinCut cut) {
+        int t = parent[s];
+        weight[s] = cut.capacity;
+        for (int i = 0; i < parent.length; i++) {
+            if (i != s && cut.sourceSide[i] && parent[i] == t) parent[i] = s;
+        }
+        if (cut.sourceSide[parent[t]]) {
+            parent[s] = parent[t];
+            parent[t] = s;
+            weight[s] = weight[t];
+            weight[t] = cut.capacity;
+        }
+    }
+
+    // Min cut value between u and v: lightest edge on the tree path, O(path length)
+    public long minCut(int u, int v) {
+        if (u == v) return Long.MAX_VALUE;
+        long best = Long.MAX_VALUE;
+        while (u != v) {
+            if (depth[u] >= depth[v]) {
+                best = Math.min(best, weight[u]);
+                u = parent[u];
+            } else {
+                best = Math.min(best, weight[v]);
+                v = parent[v];
+            }
+        }
+        return best;
+    }
+
+    public boolean isRoot(int i) {
+        return parent[i] == i;
+    }
+
+    private int depthOf(int i) {
+        // Iterative: walk up to a node with known depth, then fill in on the way back
+        int len = 0, x = i;
+        while (depth[x] == -1 && parent[x] != x) {
+            x = parent[x];
+            len++;
+        }
+        if (depth[x] == -1) depth[x] = 0;
+        int d = depth[x] + len;
+        for (x = i; depth[x] == -1; x = parent[x]) depth[x] = d--;
+        return depth[i];
+    }
+}
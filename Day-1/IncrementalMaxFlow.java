@@ -0,0 +1,106 @@
+import java.util.Arrays;
+
+/*
+    Keeps a max flow up to date while single capacities change (what-if analysis).
+    Increase: augment from the current residual graph, the old flow stays.
+    Decrease below the current flow: only the excess on that arc is repaired -
+    rerouted around the arc if possible, otherwise pushed back to s and t.
+*/
+public class IncrementalMaxFlow {
+    private final ResidualGraph g;
+    private final int s, t;
+    private final MaxFlowSolver solver;
+    private long maxFlow;
+
+    // Reused by the local repair searches
+    private final int[] parentArc, queue, visited;
+    private int stamp = 0;
+
+    public IncrementalMaxFlow(ResidualGraph g, int s, int t, MaxFlowSolver solver) {
+        this(g, s, t, solver, solver.solve(g, s, t).maxFlow);
+    }
+
+    // g already holds a max flow of value maxFlow (e.g. a run that was just shown), so nothing is solved here
+    public IncrementalMaxFlow(ResidualGraph g, int s, int t, MaxFlowSolver solver, long maxFlow) {
+        this.g = g;
+        this.s = s;
+        this.t = t;
+        this.solver = solver;
+        parentArc = new int[g.n];
+        queue = new int[g.n];
+        visited = new int[g.n];
+        this.maxFlow = maxFlow;
+    }
+
+    public ResidualGraph graph() {
+        return g;
+    }
+
+    public int source() {
+        return s;
+    }
+
+    public long maxFlow() {
+        return maxFlow;
+    }
+
+    public long setEdgeCapacity(int edgeId, long capacity) {
+        return setCapacity(g.edgeArc[edgeId], capacity);
+    }
+
+    // Returns the new max flow
+    public long setCapacity(int arc, long capacity) {
+        long old = g.capacity(arc);
+        if (capacity < g.flow(arc)) {
+            long excess = g.flow(arc) - capacity;
+            int u = g.tail(arc), v = g.heads[arc];
+            g.push(arc, -excess);
+            g.setCapacity(arc, capacity);
+
+            // u now has `excess` too much inflow, v the same amount too little
+            long left = excess - augment(u, v, excess);
+            if (left > 0) {
+                if (u != s) augment(u, s, left);
+                if (v != t) augment(t, v, left);
+            }
+            // Rerouting may have opened other s-t paths
+            maxFlow = solver.solve(g, s, t).maxFlow;
+        } else {
+            g.setCapacity(arc, capacity);
+            if (capacity > old) maxFlow = solver.solve(g, s, t).maxFlow;
+        }
+        return maxFlow;
+    }
+
+    // Shortest-path augmentation from -> to of at most `limit` units, returns the amount moved
+    private long augment(int from, int to, long limit) {
+        long moved = 0;
+        while (moved < limit) {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                stamp = 1;
+            }
+            visited[from] = stamp;
+            int head = 0, tail = 0;
+            queue[tail++] = from;
+            while (head < tail && visited[to] != stamp) {
+                int x = queue[head++];
+                for (int a = g.offsets[x], end = g.offsets[x + 1]; a < end; a++) {
+                    int y = g.heads[a];
+                    if (visited[y] != stamp && g.residual(a) > 0) {
+                        visited[y] = stamp;
+                        parentArc[y] = a;
+                        queue[tail++] = y;
+                    }
+                }
+            }
+            if (visited[to] != stamp) break;
+
+            long delta = limit - moved;
+            for (int x = to; x != from; x = g.tail(parentArc[x])) delta = Math.min(delta, g.residual(parentArc[x]));
+            for (int x = to; x != from; x = g.tail(parentArc[x])) g.push(parentArc[x], delta);
+            moved += delta;
+        }
+        return moved;
+    }
+}
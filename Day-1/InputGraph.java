@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/*
+    What the user typed: nodes + undirected RawInputEdges.
+    Hash indexes (name -> node, node pair -> edge) keep lookups O(1),
+    so building or painting a large graph stays linear.
+*/
+public class InputGraph {
+    public final ArrayList<Node> nodes = new ArrayList<>();
+    public final ArrayList<RawInputEdge> edges = new ArrayList<>();
+
+    private HashMap<String, Integer> nodeIndex = new HashMap<>();
+    private HashMap<Long, Integer> pairIndex = new HashMap<>(); // Unordered node pair -> position in edges
+
+    public InputGraph() {
+    }
+
+    // Presized for a bulk load (import), so the indexes are not rehashed while it grows
+    public InputGraph(int nodeCount, int edgeCount) {
+        nodes.ensureCapacity(nodeCount);
+        edges.ensureCapacity(edgeCount);
+        nodeIndex = new HashMap<>(nodeCount * 4 / 3 + 1);
+        pairIndex = new HashMap<>(edgeCount * 4 / 3 + 1);
+    }
+
+    public int indexOf(String name) {
+        Integer idx = nodeIndex.get(name);
+        return idx == null ? -1 : idx;
+    }
+
+    public Node node(String name) {
+        Integer idx = nodeIndex.get(name);
+        return idx == null ? null : nodes.get(idx);
+    }
+
+    public int getOrCreateNode(String name) {
+        Integer idx = nodeIndex.get(name);
+        if (idx != null) return idx;
+        nodes.add(new Node(name));
+        nodeIndex.put(name, nodes.size() - 1);
+        return nodes.size() - 1;
+    }
+
+    // Position of the edge between u and v (either direction), or -1
+    public int findEdge(String u, String v) {
+        int uIdx = indexOf(u), vIdx = indexOf(v);
+        if (uIdx == -1 || vIdx == -1) return -1;
+        Integer pos = pairIndex.get(pairKey(uIdx, vIdx));
+        return pos == null ? -1 : pos;
+    }
+
+    // Returns true if a new edge was added, false if an existing one was updated
+    public boolean putEdge(String u, String v, long weight) {
+        int pos = findEdge(u, v);
+        if (pos != -1) {
+            RawInputEdge e = edges.get(pos);
+            e.weight = weight;
+            e.u = u; e.v = v;
+            return false;
+        }
+        int uIdx = getOrCreateNode(u);
+        int vIdx = getOrCreateNode(v);
+        edges.add(new RawInputEdge(u, v, weight));
+        pairIndex.put(pairKey(uIdx, vIdx), edges.size() - 1);
+        return true;
+    }
+
+    // Same by node index (bulk loads): one index lookup per edge
+    public boolean putEdge(int uIdx, int vIdx, long weight) {
+        Node u = nodes.get(uIdx), v = nodes.get(vIdx);
+        Integer pos = pairIndex.putIfAbsent(pairKey(uIdx, vIdx), edges.size());
+        if (pos == null) {
+            edges.add(new RawInputEdge(u.name, v.name, weight));
+            return true;
+        }
+        RawInputEdge e = edges.get(pos);
+        e.weight = weight;
+        e.u = u.name; e.v = v.name;
+        return false;
+    }
+
+    public void clear() {
+        nodes.clear();
+        edges.clear();
+        nodeIndex.clear();
+        pairIndex.clear();
+    }
+
+    // Takes over another graph's nodes and edges (e.g. one built off the EDT by an import):
+    // the lists are copied, the indexes taken over without rehashing; other is left empty.
+    public void replaceWith(InputGraph other) {
+        nodes.clear();
+        edges.clear();
+        nodes.addAll(other.nodes);
+        edges.addAll(other.edges);
+        nodeIndex = other.nodeIndex;
+        pairIndex = other.pairIndex;
+        other.nodeIndex = new HashMap<>();
+        other.pairIndex = new HashMap<>();
+        other.nodes.clear();
+        other.edges.clear();
+    }
+
+    private static long pairKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
@@ -0,0 +1,4 @@
+// Common API for every max-flow algorithm. Solvers run on the graph's current flow.
+public interface MaxFlowSolver {
+    FlowResult solve(ResidualGraph g, int s, int t);
+}
@@ -0,0 +1,60 @@
+/*
+    Minimum s-t cut read off a max-flow residual graph (no second solve):
+    S = nodes still reachable from s through arcs with residual capacity,
+    cut = original arcs leaving S. One BFS + one scan, O(V + E).
+*/
+public class MinCut {
+    public final boolean[] sourceSide;
+    public final int[] cutArcs;       // Forward arcs S -> T, all saturated
+    public final long capacity;       // Equals the max flow
+
+    private MinCut(boolean[] sourceSide, int[] cutArcs, long capacity) {
+        this.sourceSide = sourceSide;
+        this.cutArcs = cutArcs;
+        this.capacity = capacity;
+    }
+
+    public static MinCut compute(ResidualGraph g, int s) {
+        boolean[] reached = new boolean[g.n];
+        int[] queue = new int[g.n];
+        int head = 0, tail = 0;
+        reached[s] = true;
+        queue[tail++] = s;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = g.offsets[u], end = g.offsets[u + 1]; a < end; a++) {
+                int v = g.heads[a];
+                if (!reached[v] && g.residual(a) > 0) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        // Reached nodes are exactly queue[0 .. tail - 1], so only their arcs are scanned
+        int count = 0;
+        long capacity = 0;
+        for (int i = 0; i < tail; i++) {
+            int u = queue[i];
+            for (int a = g.offsets[u], end = g.offsets[u + 1]; a < end; a++) {
+                if (g.capacity(a) > 0 && !reached[g.heads[a]]) {
+                    count++;
+                    capacity += g.capacity(a);
+                }
+            }
+        }
+        int[] cutArcs = new int[count];
+        count = 0;
+        for (int i = 0; i < tail; i++) {
+            int u = queue[i];
+            for (int a = g.offsets[u], end = g.offsets[u + 1]; a < end; a++) {
+                if (g.capacity(a) > 0 && !reached[g.heads[a]]) cutArcs[count++] = a;
+            }
+        }
+        return new MinCut(reached, cutArcs, capacity);
+    }
+
+    public boolean isCutArc(ResidualGraph g, int a) {
+        return g.capacity(a) > 0 && sourceSide[g.tail(a)] && !sourceSide[g.heads[a]];
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.Arrays;
+
+/*
+    Highest-label push-relabel with gap and global-relabel heuristics, O(V^2 * sqrt(E)).
+    Runs until no node has excess, so the preflow is turned back into a valid flow
+    (excess that cannot reach the sink returns to the source).
+*/
+public class PushRelabelSolver implements MaxFlowSolver {
+    private ResidualGraph g;
+    private int n, s, t;
+    private int[] height, cur, count;
+    private long[] excess;                  // Exact sums; not kept for s (never read)
+    private int[] bucketHead, next, prev;   // Doubly linked active lists, one per height
+    private int highest;
+    private int[] queue;
+
+    @Override
+    public FlowResult solve(ResidualGraph graph, int source, int sink) {
+        g = graph;
+        n = g.n;
+        s = source;
+        t = sink;
+        if (s == t) return FlowResult.of(g, 0, 0);
+
+        height = new int[n];
+        cur = new int[n];
+        count = new int[2 * n + 1];
+        excess = new long[n];
+        bucketHead = new int[2 * n + 1];
+        next = new int[n];
+        prev = new int[n];
+        queue = new int[n];
+
+        // Excess implied by the flow already in the graph
+        for (int u = 0; u < n; u++)
+            if (u != s)
+                for (int a = g.offsets[u]; a < g.offsets[u + 1]; a++) excess[u] = ResidualGraph.addFlow(excess[u], -g.flow(a));
+
+        // Saturate every arc leaving the source
+        for (int a = g.offsets[s]; a < g.offsets[s + 1]; a++) {
+            long r = g.residual(a);
+            if (r > 0) {
+                g.push(a, r);
+                if (g.heads[a] != s) excess[g.heads[a]] = ResidualGraph.addFlow(excess[g.heads[a]], r);
+            }
+        }
+
+        globalRelabel();
+        int relabelsSinceGlobal = 0;
+
+        while (highest >= 0) {
+            int u = bucketHead[highest];
+            if (u == -1) { highest--; continue; }
+            removeActive(u);
+
+            // Discharge u
+            while (excess[u] > 0) {
+                int end = g.offsets[u + 1];
+                int a = cur[u];
+                while (a < end) {
+                    int v = g.heads[a];
+                    if (g.residual(a) > 0 && height[u] == height[v] + 1) {
+                        long delta = Math.min(excess[u], g.residual(a));
+                        g.push(a, delta);
+                        excess[u] -= delta;
+                        if (excess[v] == 0 && v != s && v != t) addActive(v);
+                        if (v != s) excess[v] = ResidualGraph.addFlow(excess[v], delta);
+                        if (excess[u] == 0) break;
+                    }
+                    a++;
+                }
+                cur[u] = a;
+                if (excess[u] == 0) break;
+
+                int old = height[u];
+                relabel(u);
+                relabelsSinceGlobal++;
+                if (old < n && count[old] == 0) gap(old, u);
+
+                if (relabelsSinceGlobal >= n) {
+                    relabelsSinceGlobal = 0;
+                    globalRelabel(); // Re-queues u with the other active nodes
+                    break;
+                }
+            }
+        }
+
+        long maxFlow = g.flowValue(s);
+        return FlowResult.of(g, maxFlow, 0);
+    }
+
+    private void relabel(int u) {
+        int minHeight = 2 * n;
+        int minArc = g.offsets[u];
+        for (int a = g.offsets[u]; a < g.offsets[u + 1]; a++) {
+            if (g.residual(a) > 0 && height[g.heads[a]] < minHeight) {
+                minHeight = height[g.heads[a]];
+                minArc = a;
+            }
+        }
+        setHeight(u, minHeight + 1);
+        cur[u] = minArc;
+    }
+
+    // No node left at height h: everything between h and n can no longer reach the sink
+    private void gap(int h, int discharging) {
+        for (int u = 0; u < n; u++) {
+            if (u != s && height[u] > h && height[u] < n) {
+                boolean active = excess[u] > 0 && u != t && u != discharging;
+                if (active) removeActive(u);
+                setHeight(u, n + 1);
+                cur[u] = g.offsets[u];
+                if (active) addActive(u);
+            }
+        }
+    }
+
+    // Exact distances: to the sink, or n + distance to the source for nodes cut off from it
+    private void globalRelabel() {
+        Arrays.fill(height, 2 * n);
+        Arrays.fill(count, 0);
+        Arrays.fill(bucketHead, -1);
+        highest = -1;
+
+        height[t] = 0;
+        reverseBfs(t);
+        height[s] = n;
+        reverseBfs(s);
+
+        for (int u = 0; u < n; u++) {
+            cur[u] = g.offsets[u];
+            if (height[u] < count.length) count[height[u]]++;
+            if (excess[u] > 0 && u != s && u != t) addActive(u);
+        }
+    }
+
+    private void reverseBfs(int root) {
+        int head = 0, tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int a = g.offsets[v]; a < g.offsets[v + 1]; a++) {
+                int w = g.heads[a];
+                // w can reach v through the residual arc w -> v
+                if (height[w] == 2 * n && g.residual(g.rev[a]) > 0 && w != s && w != t) {
+                    height[w] = height[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    private void setHeight(int u, int h) {
+        if (height[u] < count.length) count[height[u]]--;
+        height[u] = Math.min(h, 2 * n);
+        count[height[u]]++;
+    }
+
+    private void addActive(int u) {
+        int h = height[u];
+        next[u] = bucketHead[h];
+        prev[u] = -1;
+        if (bucketHead[h] != -1) prev[bucketHead[h]] = u;
+        bucketHead[h] = u;
+        if (h > highest) highest = h;
+    }
+
+    private void removeActive(int u) {
+        int h = height[u];
+        if (prev[u] != -1) next[prev[u]] = next[u];
+        else bucketHead[h] = next[u];
+        if (next[u] != -1) prev[next[u]] = prev[u];
+    }
+}
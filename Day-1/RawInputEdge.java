@@ -1,8 +1,8 @@
 public class RawInputEdge {
     public String u, v;
-    public int weight;
+    public long weight;
 
-    public RawInputEdge(String u, String v, int weight) {
+    public RawInputEdge(String u, String v, long weight) {
         this.u = u;
         this.v = v;
         this.weight = weight;
@@ -0,0 +1,139 @@
+import java.util.Arrays;
+
+/*
+    Residual graph in compressed-sparse-row form (built once by FlowNetwork.build).
+    Arcs leaving node u are offsets[u] .. offsets[u + 1] - 1.
+    Every forward arc a has a partner rev[a] (capacity 0) stored at the head node,
+    so tail(a) = heads[rev[a]] and no separate tail array is needed.
+
+    Capacities/flows live in int[] (compact) unless some capacity needs 64 bits,
+    then in long[] (wide). The choice is made once in build(); always go through
+    capacity/flow/residual/push so solvers work with both layouts.
+*/
+public class ResidualGraph {
+    public final int n;            // Nodes
+    public final int m;            // Arcs (2 per edge)
+    public final int[] offsets;    // n + 1 entries
+    public final int[] heads;
+    public final int[] rev;
+    public final int[] edgeArc;    // Edge id -> forward arc
+
+    public final boolean wide;
+    private final int[] cap, flow;        // Compact layout (null when wide)
+    private final long[] cap64, flow64;   // Wide layout (null when compact)
+
+    ResidualGraph(int n, int edgeCount, int[] edgeU, int[] edgeV, int[] edgeCap, long[] edgeCap64) {
+        this.n = n;
+        this.m = 2 * edgeCount;
+        offsets = new int[n + 1];
+        heads = new int[m];
+        rev = new int[m];
+        edgeArc = new int[edgeCount];
+
+        wide = edgeCap64 != null;
+        cap = wide ? null : new int[m];
+        flow = wide ? null : new int[m];
+        cap64 = wide ? new long[m] : null;
+        flow64 = wide ? new long[m] : null;
+
+        // Counting sort of arcs by tail node
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[edgeU[i] + 1]++;
+            offsets[edgeV[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        for (int i = 0; i < edgeCount; i++) {
+            int u = edgeU[i], v = edgeV[i];
+            int a = next[u]++;
+            int b = next[v]++;
+            heads[a] = v;
+            heads[b] = u;
+            if (wide) cap64[a] = edgeCap64[i];
+            else cap[a] = edgeCap[i];
+            rev[a] = b;
+            rev[b] = a;
+            edgeArc[i] = a;
+        }
+    }
+
+    // Shares topology and capacities with `other`, own zeroed flow arrays (for parallel solves)
+    private ResidualGraph(ResidualGraph other) {
+        n = other.n;
+        m = other.m;
+        offsets = other.offsets;
+        heads = other.heads;
+        rev = other.rev;
+        edgeArc = other.edgeArc;
+        wide = other.wide;
+        cap = other.cap;
+        cap64 = other.cap64;
+        flow = wide ? null : new int[m];
+        flow64 = wide ? new long[m] : null;
+    }
+
+    public ResidualGraph withFreshFlow() {
+        return new ResidualGraph(this);
+    }
+
+    public int tail(int a) {
+        return heads[rev[a]];
+    }
+
+    public long capacity(int a) {
+        return wide ? cap64[a] : cap[a];
+    }
+
+    public long flow(int a) {
+        return wide ? flow64[a] : flow[a];
+    }
+
+    public long residual(int a) {
+        return wide ? cap64[a] - flow64[a] : cap[a] - flow[a];
+    }
+
+    public void push(int a, long delta) {
+        if (wide) {
+            flow64[a] += delta;
+            flow64[rev[a]] -= delta;
+        } else {
+            flow[a] += (int) delta;
+            flow[rev[a]] -= (int) delta;
+        }
+    }
+
+    // Compact graphs cannot take capacities beyond int range (rebuild instead)
+    public void setCapacity(int a, long capacity) {
+        if (wide) {
+            cap64[a] = capacity;
+        } else {
+            if (capacity > Integer.MAX_VALUE) throw new IllegalArgumentException("Capacity " + capacity + " needs a wide graph");
+            cap[a] = (int) capacity;
+        }
+    }
+
+    // Net flow currently leaving s (value of the flow already in the graph)
+    public long flowValue(int s) {
+        long total = 0;
+        for (int a = offsets[s]; a < offsets[s + 1]; a++) total = addFlow(total, flow(a));
+        return total;
+    }
+
+    // Exact a + b for flow sums: a flow beyond Long.MAX_VALUE is an error, never a wrapped value
+    public static long addFlow(long a, long b) {
+        long sum = a + b;
+        if (((a ^ sum) & (b ^ sum)) < 0) throw new ArithmeticException("flow exceeds 64 bits");
+        return sum;
+    }
+
+    public long edgeFlow(int edgeId) {
+        return flow(edgeArc[edgeId]);
+    }
+
+    public void resetFlow() {
+        if (wide) Arrays.fill(flow64, 0);
+        else Arrays.fill(flow, 0);
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.HashMap;
+
+/*
+    Symbol names of an automaton and the input -> symbol id mapping (Nfa, MappedDfa).
+    If every symbol is one character, a string is read char by char, otherwise it is a
+    whitespace separated list of symbol names.
+    otherSymbol (char-by-char input only) stands for every character that is not a symbol,
+    e.g. for regex classes like "." or [^,]; without it such characters reject.
+*/
+public class Alphabet {
+    public final String[] names;
+    public final int otherSymbol;     // Symbol id for characters outside the alphabet, -1 = none
+
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private final int[] ascii = new int[128]; // Single-char symbols below 128: char -> id + 1
+    private final boolean singleChar;
+
+    public Alphabet(String[] names, int otherSymbol) {
+        this.names = names;
+        this.otherSymbol = otherSymbol;
+        boolean single = true;
+        for (int a = names.length - 1; a >= 0; a--) {
+            ids.put(names[a], a);
+            if (a == otherSymbol) continue;
+            if (names[a].length() != 1) single = false;
+            else if (names[a].charAt(0) < 128) ascii[names[a].charAt(0)] = a + 1;
+        }
+        singleChar = single;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public boolean isSingleChar() {
+        return singleChar;
+    }
+
+    // Symbol id by name, or -1
+    public int index(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    // Symbol id of a one-character symbol, else otherSymbol (or -1)
+    public int index(char c) {
+        if (!singleChar) return -1;
+        int a = c < 128 ? ascii[c] - 1 : index(String.valueOf(c));
+        return a >= 0 && a != otherSymbol ? a : otherSymbol;
+    }
+
+    // Input string -> symbol ids (-1 for unknown symbols)
+    public int[] tokenize(String input) {
+        if (singleChar) {
+            int[] out = new int[input.length()];
+            for (int i = 0; i < out.length; i++) out[i] = index(input.charAt(i));
+            return out;
+        }
+        String trimmed = input.trim();
+        if (trimmed.isEmpty()) return new int[0];
+        String[] tokens = trimmed.split("\\s+");
+        int[] out = new int[tokens.length];
+        for (int i = 0; i < out.length; i++) out[i] = index(tokens[i]);
+        return out;
+    }
+}
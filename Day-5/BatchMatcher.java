@@ -0,0 +1,142 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+    Non-interactive acceptance: one candidate string per input line, one result line
+    ("<string>\tACCEPTED" / "<string>\tREJECTED") per output line, in input order, no trace.
+    For an NfaUnion the result is which automata accept ("<string>\t0,3" / "<string>\t-").
+
+    The matcher is the minimised DFA when it fits in maxStates (an immutable table, shared
+    by all threads), else a lazy Dfa per thread (its cache is not thread-safe); a union
+    uses one NfaUnion.Matcher per thread.
+    With threads > 1 the input is cut into chunks of CHUNK lines that are matched in a pool
+    while this thread keeps reading and writes finished chunks in order; at most
+    4 * threads chunks are in flight, so memory stays bounded for any input size.
+*/
+public class BatchMatcher {
+    static final int CHUNK = 4096;
+
+    private static final String ACCEPTED = "ACCEPTED";
+
+    private final ThreadLocal<Function<String, String>> matcher;   // String -> result column, null = rejected
+    private final String rejected;
+    public final String description;
+    public long strings, accepted;
+
+    public BatchMatcher(Nfa nfa, int maxStates) {
+        Function<String, String> shared;
+        String desc;
+        try {
+            DfaTable table = Dfa.toTable(nfa, maxStates).minimize();
+            shared = s -> table.accepts(s) ? ACCEPTED : null;
+            desc = "minimised DFA, " + table.states + " states";
+        } catch (IllegalStateException e) {
+            shared = null;
+            desc = "lazy DFA per thread (" + e.getMessage() + ")";
+        }
+        Function<String, String> table = shared;
+        matcher = ThreadLocal.withInitial(() -> {
+            if (table != null) return table;
+            Dfa dfa = new Dfa(nfa, maxStates);
+            return s -> dfa.accepts(s) ? ACCEPTED : null;
+        });
+        rejected = "REJECTED";
+        description = desc;
+    }
+
+    // Memory-mapped compiled DFA: read-only, shared by all threads
+    public BatchMatcher(MappedDfa dfa) {
+        Function<String, String> shared = s -> dfa.accepts(s) ? ACCEPTED : null;
+        matcher = ThreadLocal.withInitial(() -> shared);
+        rejected = "REJECTED";
+        description = "mapped DFA, " + dfa.states + " states";
+    }
+
+    public BatchMatcher(NfaUnion union, int maxStates) {
+        matcher = ThreadLocal.withInitial(() -> {
+            NfaUnion.Matcher m = union.matcher(maxStates);
+            return s -> {
+                int[] ids = m.matches(s);
+                if (ids.length == 0) return null;
+                StringBuilder sb = new StringBuilder();
+                for (int id : ids) sb.append(sb.length() > 0 ? "," : "").append(id);
+                return sb.toString();
+            };
+        });
+        rejected = "-";
+        description = union.count + " automata in one pass, lazy DFA per thread";
+    }
+
+    public void run(BufferedReader in, BufferedWriter out, int threads) throws IOException {
+        if (threads <= 1) {
+            Function<String, String> classify = matcher.get();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String result = classify.apply(line);
+                strings++;
+                if (result != null) accepted++;
+                out.write(line);
+                out.write('\t');
+                out.write(result != null ? result : rejected);
+                out.write('\n');
+            }
+            out.flush();
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        AtomicLong acceptedCount = new AtomicLong();
+        try {
+            String[] chunk = new String[CHUNK];
+            int size = 0;
+            String line;
+            while (true) {
+                line = in.readLine();
+                if (line != null) chunk[size++] = line;
+                if (size == CHUNK || (line == null && size > 0)) {
+                    String[] lines = chunk;
+                    int count = size;
+                    pending.add(pool.submit(() -> matchChunk(lines, count, acceptedCount)));
+                    strings += count;
+                    chunk = new String[CHUNK];
+                    size = 0;
+                    if (pending.size() >= 4 * threads) out.write(pending.poll().get());
+                }
+                if (line == null) break;
+            }
+            while (!pending.isEmpty()) out.write(pending.poll().get());
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        accepted = acceptedCount.get();
+    }
+
+    // Result lines of one chunk, formatted in the worker so the writer thread only copies
+    private String matchChunk(String[] lines, int count, AtomicLong acceptedCount) {
+        Function<String, String> classify = matcher.get();
+        StringBuilder sb = new StringBuilder(count * 24);
+        long ok = 0;
+        for (int i = 0; i < count; i++) {
+            String result = classify.apply(lines[i]);
+            if (result != null) ok++;
+            sb.append(lines[i]).append('\t').append(result != null ? result : rejected).append('\n');
+        }
+        acceptedCount.addAndGet(ok);
+        return sb.toString();
+    }
+}
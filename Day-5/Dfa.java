@@ -0,0 +1,216 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+    DFA built from an Nfa by subset construction, lazily: a DFA state (= set of NFA states,
+    stored as a bitset) and its transitions are only created when an input reaches them.
+    Matching is then one table lookup per symbol, O(n) for any NFA.
+
+    Blow-up is bounded by `maxStates`: when the cache is full it is flushed and rebuilt
+    from the current state on (like RE2's DFA cache), so memory stays bounded and the
+    result stays exact, only slower for automata that really need that many states.
+*/
+public class Dfa {
+    public static final int DEAD = -1;      // Empty NFA state set: nothing can accept any more
+    private static final int UNKNOWN = -2;  // Transition not computed yet
+
+    private final Nfa nfa;
+    private final int k;                    // Symbols
+    private final int words;                // longs per state set
+    private final int maxStates;
+
+    private long[][] sets = new long[16][];
+    private boolean[] accept = new boolean[16];
+    private int[] table = new int[16];      // table[d * k + a] -> next DFA state / DEAD / UNKNOWN
+    private int count;
+    private final HashMap<Key, Integer> index = new HashMap<>();
+    private int startState = UNKNOWN;
+    private int flushes;
+
+    public Dfa(Nfa nfa, int maxStates) {
+        this.nfa = nfa;
+        this.k = nfa.symbolCount();
+        this.words = (nfa.stateCount() + 63) >>> 6;
+        this.maxStates = Math.max(2, maxStates);
+        table = new int[16 * Math.max(1, k)];
+    }
+
+    public int start() {
+        if (startState == UNKNOWN) {
+            long[] set = new long[words];
+            for (int q : nfa.startStates()) set[q >>> 6] |= 1L << q;
+            startState = intern(set);
+        }
+        return startState;
+    }
+
+    // Next DFA state, building it on first use. May flush the cache, so earlier ids are invalid afterwards.
+    public int step(int d, int symbol) {
+        int next = table[d * k + symbol];
+        if (next != UNKNOWN) return next;
+
+        long[] from = sets[d], to = new long[words];
+        boolean empty = true;
+        for (int w = 0; w < words; w++) {
+            for (long bits = from[w]; bits != 0; bits &= bits - 1) {
+                int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int[] succ = nfa.step(q, symbol);
+                if (succ == null) continue;
+                for (int p : succ) {
+                    to[p >>> 6] |= 1L << p;
+                    empty = false;
+                }
+            }
+        }
+        if (empty) {
+            table[d * k + symbol] = DEAD;
+            return DEAD;
+        }
+        Integer known = index.get(new Key(to));
+        if (known != null) next = known;
+        else if (count < maxStates) next = intern(to);
+        else {
+            flush();
+            return intern(to); // Not cached as a transition of d: d no longer exists
+        }
+        table[d * k + symbol] = next;
+        return next;
+    }
+
+    public boolean isAccepting(int d) {
+        return d != DEAD && accept[d];
+    }
+
+    // Symbols as ids (see Nfa.symbolIndex); -1 is an unknown symbol and rejects
+    public boolean accepts(int[] input, int len) {
+        return isAccepting(run(input, len));
+    }
+
+    public boolean accepts(String input) {
+        return isAccepting(run(input));
+    }
+
+    // DFA state after the whole input, or DEAD
+    public int run(int[] input, int len) {
+        int d = start();
+        for (int i = 0; i < len; i++) {
+            if (input[i] < 0) return DEAD;
+            d = step(d, input[i]);
+            if (d == DEAD) return DEAD;
+        }
+        return d;
+    }
+
+    public int run(String input) {
+        if (!nfa.isSingleChar()) {
+            int[] ids = nfa.tokenize(input);
+            return run(ids, ids.length);
+        }
+        int d = start();
+        for (int i = 0; i < input.length(); i++) {
+            int a = nfa.symbolIndex(input.charAt(i));
+            if (a < 0) return DEAD;
+            d = step(d, a);
+            if (d == DEAD) return DEAD;
+        }
+        return d;
+    }
+
+    // NFA states of DFA state d as a bitset (valid until the next flush; do not modify)
+    public long[] stateSet(int d) {
+        return sets[d];
+    }
+
+    /*
+        Eager subset construction of every reachable DFA state into a complete table
+        (plus a dead state if some transition leads nowhere). Uses a fresh DFA so this
+        one's cache is untouched. Throws if more than maxStates states are needed.
+    */
+    public static DfaTable toTable(Nfa nfa, int maxStates) {
+        Dfa dfa = new Dfa(nfa, maxStates);
+        int k = nfa.symbolCount();
+        dfa.start();
+        boolean needsDead = false;
+        for (int d = 0; d < dfa.count; d++) {
+            for (int a = 0; a < k; a++) {
+                if (dfa.step(d, a) == DEAD) needsDead = true;
+                if (dfa.flushes > 0) throw new IllegalStateException("DFA needs more than " + maxStates + " states");
+            }
+        }
+
+        int states = dfa.count + (needsDead ? 1 : 0);
+        int dead = dfa.count;
+        int[] next = new int[states * k];
+        boolean[] accepting = Arrays.copyOf(dfa.accept, states);
+        for (int d = 0; d < dfa.count; d++) {
+            for (int a = 0; a < k; a++) {
+                int t = dfa.table[d * k + a];
+                next[d * k + a] = t == DEAD ? dead : t;
+            }
+        }
+        if (needsDead) Arrays.fill(next, dead * k, states * k, dead);
+        return new DfaTable(nfa, states, next, accepting, dfa.startState);
+    }
+
+    public int stateCount() {
+        return count;
+    }
+
+    public int flushes() {
+        return flushes;
+    }
+
+    private int intern(long[] set) {
+        Integer known = index.get(new Key(set));
+        if (known != null) return known;
+        if (count == sets.length) {
+            sets = Arrays.copyOf(sets, count * 2);
+            accept = Arrays.copyOf(accept, count * 2);
+        }
+        if ((count + 1) * k > table.length) table = Arrays.copyOf(table, Math.max(table.length * 2, (count + 1) * k));
+
+        int d = count++;
+        sets[d] = set;
+        Arrays.fill(table, d * k, d * k + k, UNKNOWN);
+        boolean acc = false;
+        for (int w = 0; w < words && !acc; w++) {
+            for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                if (nfa.accepting[(w << 6) + Long.numberOfTrailingZeros(bits)]) {
+                    acc = true;
+                    break;
+                }
+            }
+        }
+        accept[d] = acc;
+        index.put(new Key(set), d);
+        return d;
+    }
+
+    private void flush() {
+        flushes++;
+        index.clear();
+        count = 0;
+        startState = UNKNOWN;
+    }
+
+    // Bitset as a hash key
+    private static final class Key {
+        final long[] bits;
+        final int hash;
+
+        Key(long[] bits) {
+            this.bits = bits;
+            this.hash = Arrays.hashCode(bits);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(bits, ((Key) o).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
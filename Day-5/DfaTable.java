@@ -0,0 +1,165 @@
+import java.util.Arrays;
+
+/*
+    Complete DFA as one flat int table: next[d * k + a], every state has every transition
+    (a dead state is added when needed). Built eagerly by Dfa.toTable(), small enough to
+    minimise and keep in cache; matching is one lookup per symbol.
+*/
+public class DfaTable {
+    public final Nfa nfa;            // Alphabet and names of the automaton it was built from
+    public final int states, k;
+    public final int[] next;
+    public final boolean[] accepting;
+    public final int start;
+
+    public DfaTable(Nfa nfa, int states, int[] next, boolean[] accepting, int start) {
+        this.nfa = nfa;
+        this.states = states;
+        this.k = nfa.symbolCount();
+        this.next = next;
+        this.accepting = accepting;
+        this.start = start;
+    }
+
+    public boolean accepts(String input) {
+        if (!nfa.isSingleChar()) {
+            int[] ids = nfa.tokenize(input);
+            return accepts(ids, ids.length);
+        }
+        int d = start;
+        for (int i = 0; i < input.length(); i++) {
+            int a = nfa.symbolIndex(input.charAt(i));
+            if (a < 0) return false;
+            d = next[d * k + a];
+        }
+        return accepting[d];
+    }
+
+    public boolean accepts(int[] input, int len) {
+        int d = start;
+        for (int i = 0; i < len; i++) {
+            if (input[i] < 0) return false;
+            d = next[d * k + input[i]];
+        }
+        return accepting[d];
+    }
+
+    // A rejecting state whose transitions all loop back to itself (nothing can accept any more), or -1
+    public int deadState() {
+        for (int d = 0; d < states; d++) {
+            if (accepting[d]) continue;
+            boolean self = true;
+            for (int a = 0; a < k && self; a++) self = next[d * k + a] == d;
+            if (self) return d;
+        }
+        return -1;
+    }
+
+    /*
+        Hopcroft's partition refinement, O(k * n log n): start from {accepting, rejecting},
+        split blocks by "has a successor in splitter block B on symbol a" until stable.
+        Each block of the final partition becomes one state.
+    */
+    public DfaTable minimize() {
+        int n = states;
+        if (n == 0) return this;
+
+        // Predecessors per symbol in CSR form: inv[invStart[a * (n + 1) + q] ..] -> p with next(p, a) == q
+        int[] invStart = new int[k * (n + 1) + 1];
+        for (int p = 0; p < n; p++) for (int a = 0; a < k; a++) invStart[a * (n + 1) + next[p * k + a] + 1]++;
+        for (int i = 0; i < invStart.length - 1; i++) invStart[i + 1] += invStart[i];
+        int[] inv = new int[n * k];
+        int[] fill = Arrays.copyOf(invStart, invStart.length);
+        for (int p = 0; p < n; p++) for (int a = 0; a < k; a++) inv[fill[a * (n + 1) + next[p * k + a]]++] = p;
+
+        // Partition: states of block b are elems[first[b] .. end[b] - 1]
+        int[] elems = new int[n], loc = new int[n], blockOf = new int[n];
+        int[] first = new int[n], end = new int[n], marked = new int[n];
+        int blocks = 0, pos = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean acc = pass == 0;
+            int start0 = pos;
+            for (int q = 0; q < n; q++) {
+                if (accepting[q] != acc) continue;
+                elems[pos] = q;
+                loc[q] = pos++;
+                blockOf[q] = blocks;
+            }
+            if (pos > start0) {
+                first[blocks] = start0;
+                end[blocks++] = pos;
+            }
+        }
+
+        // Worklist of (block, symbol) splitters
+        boolean[] waiting = new boolean[n * k];
+        int[] work = new int[n * k];
+        int workSize = 0;
+        int smaller = blocks == 2 && end[1] - first[1] < end[0] - first[0] ? 1 : 0;
+        for (int a = 0; a < k; a++) {
+            work[workSize++] = smaller * k + a;
+            waiting[smaller * k + a] = true;
+        }
+
+        int[] splitter = new int[n], touched = new int[n];
+        while (workSize > 0) {
+            int item = work[--workSize];
+            waiting[item] = false;
+            int b = item / k, a = item % k;
+
+            // Snapshot B: marking below may reorder its own elements
+            int size = end[b] - first[b];
+            System.arraycopy(elems, first[b], splitter, 0, size);
+
+            int touchedCount = 0;
+            for (int i = 0; i < size; i++) {
+                int q = splitter[i];
+                for (int j = invStart[a * (n + 1) + q], stop = invStart[a * (n + 1) + q + 1]; j < stop; j++) {
+                    int p = inv[j], x = blockOf[p];
+                    int target = first[x] + marked[x];
+                    if (loc[p] < target) continue; // Already marked
+                    // Move p to the marked front part of its block
+                    int other = elems[target];
+                    elems[loc[p]] = other;
+                    loc[other] = loc[p];
+                    elems[target] = p;
+                    loc[p] = target;
+                    if (marked[x]++ == 0) touched[touchedCount++] = x;
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int x = touched[t];
+                int m = marked[x];
+                marked[x] = 0;
+                if (m == end[x] - first[x]) continue; // Whole block marked: no split
+
+                // Marked part becomes the new block y
+                int y = blocks++;
+                first[y] = first[x];
+                end[y] = first[x] + m;
+                first[x] = end[y];
+                for (int i = first[y]; i < end[y]; i++) blockOf[elems[i]] = y;
+
+                int smallerBlock = end[y] - first[y] <= end[x] - first[x] ? y : x;
+                for (int c = 0; c < k; c++) {
+                    int add = waiting[x * k + c] ? y : smallerBlock;
+                    if (!waiting[add * k + c]) {
+                        waiting[add * k + c] = true;
+                        work[workSize++] = add * k + c;
+                    }
+                }
+            }
+        }
+
+        // One state per block, transitions taken from any member
+        int[] minNext = new int[blocks * k];
+        boolean[] minAccept = new boolean[blocks];
+        for (int b = 0; b < blocks; b++) {
+            int rep = elems[first[b]];
+            minAccept[b] = accepting[rep];
+            for (int a = 0; a < k; a++) minNext[b * k + a] = blockOf[next[rep * k + a]];
+        }
+        return new DfaTable(nfa, blocks, minNext, minAccept, blockOf[start]);
+    }
+}
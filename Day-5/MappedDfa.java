@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+    Compiled DFA in a binary file, matched straight from a memory mapping: map() reads the
+    header and the symbol names (O(k)), the transition table and the accept bits are used
+    in place through IntBuffer views, so start-up does not depend on the table size and
+    the OS pages the table in (and shares it between processes) as it is used.
+
+    File layout, little-endian ints (the byte order of x86 / ARM, so the IntBuffer views
+    read them without swapping):
+        0   magic "NDFA", version
+        8   states, k, start, dead state (-1 = none), otherSymbol (-1 = none)
+        28  symbol names: k x (byte length, UTF-8 bytes), zero-padded to a multiple of 4
+        ..  transition table: states * k ints, next[d * k + a]
+        ..  accept bitset: (states + 31) / 32 ints, bit d & 31 of int d >>> 5
+    DFA states are plain ids, so there is no state name table. One mapping holds at most
+    2 GB, which bounds states * k to about 500 million entries.
+    A corrupt table is not detected up front (that would mean reading all of it); an
+    out-of-range state id fails with IndexOutOfBoundsException when it is reached.
+*/
+public class MappedDfa {
+    static final int MAGIC = 0x4E444641; // "NDFA"
+    static final int VERSION = 1;
+
+    public final Alphabet alphabet;
+    public final int states, k, start, dead;
+    private final IntBuffer next;
+    private final IntBuffer accept;
+
+    private MappedDfa(Alphabet alphabet, int states, int start, int dead, IntBuffer next, IntBuffer accept) {
+        this.alphabet = alphabet;
+        this.states = states;
+        this.k = alphabet.size();
+        this.start = start;
+        this.dead = dead;
+        this.next = next;
+        this.accept = accept;
+    }
+
+    public static void write(DfaTable table, Path file) throws IOException {
+        int states = table.states, k = table.k;
+        if ((long) states * k + (states + 31) / 32 > (Integer.MAX_VALUE - (1 << 20)) / 4)
+            throw new IllegalArgumentException("DFA too large for one mapping: " + states + " states x " + k + " symbols");
+
+        int dead = table.deadState(); // Lets the matcher stop early
+
+        int nameBytes = 0;
+        byte[][] names = new byte[k][];
+        for (int a = 0; a < k; a++) {
+            names[a] = table.nfa.symbolNames[a].getBytes(StandardCharsets.UTF_8);
+            if (names[a].length > 255) throw new IllegalArgumentException("symbol name longer than 255 bytes: " + table.nfa.symbolNames[a]);
+            nameBytes += 1 + names[a].length;
+        }
+        ByteBuffer header = ByteBuffer.allocate(28 + ((nameBytes + 3) & ~3)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(states).putInt(k).putInt(table.start).putInt(dead).putInt(table.nfa.otherSymbol);
+        for (byte[] name : names) header.put((byte) name.length).put(name);
+        header.position(header.capacity()).flip();
+
+        int[] bits = new int[(states + 31) / 32];
+        for (int d = 0; d < states; d++) if (table.accepting[d]) bits[d >>> 5] |= 1 << d;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(ch, header);
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            writeInts(ch, chunk, table.next);
+            writeInts(ch, chunk, bits);
+        }
+    }
+
+    private static void writeInts(FileChannel ch, ByteBuffer chunk, int[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            chunk.clear();
+            int n = Math.min(values.length - i, chunk.capacity() / 4);
+            chunk.asIntBuffer().put(values, i, n);
+            chunk.limit(4 * n);
+            writeFully(ch, chunk);
+            i += n;
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    public static MappedDfa map(Path file) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("file too large: " + file);
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // Stays valid after close
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < 28 || buf.getInt(0) != MAGIC) throw new IOException("not a DFA file: " + file);
+        if (buf.getInt(4) != VERSION) throw new IOException("unsupported DFA file version " + buf.getInt(4) + ": " + file);
+        int states = buf.getInt(8), k = buf.getInt(12), start = buf.getInt(16), dead = buf.getInt(20), other = buf.getInt(24);
+        if (k < 0 || k > buf.capacity() || other < -1 || other >= k) throw new IOException("corrupt DFA file: " + file);
+
+        String[] names = new String[k];
+        int pos = 28;
+        for (int a = 0; a < k; a++) {
+            if (pos >= buf.capacity()) throw new IOException("truncated DFA file: " + file);
+            byte[] bytes = new byte[buf.get(pos) & 0xFF];
+            buf.get(pos + 1, bytes);
+            names[a] = new String(bytes, StandardCharsets.UTF_8);
+            pos += 1 + bytes.length;
+        }
+        pos = (pos + 3) & ~3;
+        long tableInts = (long) states * k, acceptInts = (states + 31) / 32;
+        if (states <= 0 || start < 0 || start >= states || pos + 4 * (tableInts + acceptInts) != buf.capacity())
+            throw new IOException("corrupt DFA file: " + file);
+
+        // slice() resets the byte order, so it is set again on each view
+        IntBuffer next = buf.slice(pos, (int) (4 * tableInts)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        IntBuffer accept = buf.slice(pos + (int) (4 * tableInts), (int) (4 * acceptInts)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        return new MappedDfa(new Alphabet(names, other), states, start, dead, next, accept);
+    }
+
+    public int step(int d, int symbol) {
+        return next.get(d * k + symbol);
+    }
+
+    public boolean isAccepting(int d) {
+        return (accept.get(d >>> 5) & (1 << d)) != 0;
+    }
+
+    public boolean accepts(String input) {
+        if (!alphabet.isSingleChar()) {
+            int[] ids = alphabet.tokenize(input);
+            return accepts(ids, ids.length);
+        }
+        int d = start;
+        for (int i = 0; i < input.length() && d != dead; i++) {
+            int a = alphabet.index(input.charAt(i));
+            if (a < 0) return false;
+            d = next.get(d * k + a);
+        }
+        return isAccepting(d);
+    }
+
+    public boolean accepts(int[] input, int len) {
+        int d = start;
+        for (int i = 0; i < len && d != dead; i++) {
+            if (input[i] < 0) return false;
+            d = next.get(d * k + input[i]);
+        }
+        return isAccepting(d);
+    }
+}
@@ -1,42 +1,92 @@
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.Scanner;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NFASimulator {
-    static char[] states;
-    static char[] symbols;
-    static char startState;
-    static char[] finalStates;
-    static char[][][] transitions;
+    static final int DFA_STATE_CAP = 10000; // Lazy DFA flushes its cache beyond this many states
+    static final int COMPILE_STATE_CAP = 1 << 21; // --compile builds the whole DFA, up to this many states
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(batch(args));
+        }
         Scanner sc = new Scanner(System.in);
 
         // 1. User se file path lena
-        System.out.print("Enter the NFA configuration file path (e.g., nfa.txt): ");
-        String fileName = sc.nextLine();
+        System.out.print("Enter the NFA configuration file path (e.g., nfa.txt), re:<regex>, @<list-file> or a .dfa file: ");
+        String fileName = sc.nextLine().trim();
+        if (fileName.startsWith("@")) {
+            classify(sc, fileName);
+            sc.close();
+            return;
+        }
+        if (fileName.endsWith(".dfa")) {
+            matchCompiled(sc, fileName);
+            sc.close();
+            return;
+        }
 
-        if (loadNFA(fileName)) {
+        Nfa nfa = load(fileName);
+        if (nfa != null) {
             System.out.println("\n--- NFA Config Loaded Successfully ---");
-            System.out.println("States: " + String.join(", ", String.valueOf(states).split("(?<=.)")));
-            System.out.println("Symbols: " + String.join(", ", String.valueOf(symbols).split("(?<=.)")));
-            System.out.println("Final States: " + String.join(", ", String.valueOf(finalStates).split("(?<=.)")));
-            System.out.println("Start State: " + startState);
+            System.out.println("States: " + String.join(", ", nfa.stateNames));
+            System.out.println("Symbols: " + String.join(", ", nfa.symbolNames));
+            List<String> finals = new ArrayList<>();
+            for (int q = 0; q < nfa.stateCount(); q++)
+                if (nfa.isFinal(q))
+                    finals.add(nfa.stateNames[q]);
+            System.out.println("Final States: " + String.join(", ", finals));
+            System.out.println("Start State: " + nfa.stateNames[nfa.start]);
 
             System.out.println("\nTransitions Table:");
-            for (int i = 0; i < states.length; i++) {
-                for (int j = 0; j < symbols.length; j++) {
-                    if (transitions[i][j] != null) {
-                        System.out.println(
-                                "  " + states[i] + " --" + symbols[j] + "--> " +
-                                        String.valueOf(transitions[i][j])
-                                                .replaceAll("", ", ")
-                                                .substring(2)
-                                                .replaceAll(", $", ""));
+            for (int i = 0; i < nfa.stateCount(); i++) {
+                if (nfa.epsilon[i] != null)
+                    System.out.println("  " + nfa.stateNames[i] + " --eps--> " + stateList(nfa, nfa.epsilon[i]));
+                for (int j = 0; j < nfa.symbolCount(); j++) {
+                    if (nfa.delta[i][j] != null) {
+                        System.out.println("  " + nfa.stateNames[i] + " --" + nfa.symbolNames[j] + "--> " + stateList(nfa, nfa.delta[i][j]));
                     }
                 }
             }
+            if (!nfa.isSingleChar())
+                System.out.println("\nMulti-character symbols: separate input symbols with spaces.");
+
+            // 2. Mode: trace every branch, or match in one pass without a trace
+            System.out.println("\nMatching mode:");
+            System.out.println("  1 = trace every branch (backtracking)");
+            System.out.println("  2 = state-set simulation (fast, any input length)");
+            System.out.println("  3 = compiled DFA (fastest for repeated matching)");
+            System.out.println("  4 = minimised DFA (whole DFA built up front, then Hopcroft)");
+            System.out.println("  5 = memoised trace (each state/position explored once, prints the accepting path)");
+            System.out.print("Choose (1/2/3/4/5): ");
+            String mode = sc.nextLine().trim();
+            Nfa set = null;
+            Dfa dfa = null;
+            DfaTable table = null;
+            if (mode.equals("2")) {
+                set = nfa;
+            } else if (mode.equals("3")) {
+                dfa = new Dfa(nfa, DFA_STATE_CAP);
+                System.out.println("DFA mode: states are built on demand (cap " + DFA_STATE_CAP + ").");
+            } else if (mode.equals("4")) {
+                try {
+                    DfaTable full = Dfa.toTable(nfa, DFA_STATE_CAP);
+                    table = full.minimize();
+                    System.out.println("DFA states: " + full.states + " -> minimised: " + table.states);
+                } catch (IllegalStateException e) {
+                    System.out.println(e.getMessage() + ", using the lazy DFA instead.");
+                    dfa = new Dfa(nfa, DFA_STATE_CAP);
+                }
+            }
 
             while (true) {
                 System.out.print("\nEnter string to test (or 'exit' to quit): ");
@@ -44,8 +94,21 @@ public class NFASimulator {
                 if (inputString.equalsIgnoreCase("exit"))
                     break;
 
-                System.out.println("\n--- TRACING PATHS ---");
-                boolean result = simulate(startState, inputString, 0);
+                boolean result;
+                if (set != null) {
+                    result = set.accepts(inputString);
+                } else if (table != null) {
+                    result = table.accepts(inputString);
+                } else if (dfa != null) {
+                    result = dfa.accepts(inputString);
+                    System.out.println("DFA states so far: " + dfa.stateCount() + (dfa.flushes() > 0 ? " (cache flushed " + dfa.flushes() + "x)" : ""));
+                } else if (mode.equals("5")) {
+                    System.out.println("\n--- TRACING PATHS (memoised) ---");
+                    result = simulateMemo(nfa, nfa.tokenize(inputString));
+                } else {
+                    System.out.println("\n--- TRACING PATHS ---");
+                    result = simulate(nfa, nfa.start, nfa.tokenize(inputString), 0);
+                }
                 System.out.println("\nFINAL RESULT: " + (result ? "ACCEPTED " : "REJECTED "));
             }
         } else {
@@ -54,35 +117,391 @@ public class NFASimulator {
         sc.close();
     }
 
-    static boolean simulate(char curr, String input, int idx) {
-        if (idx == input.length()) {
-            boolean isFinal = isFinalState(curr);
-            System.out.println("Checking final state [" + curr + "]: " + (isFinal ? "SUCCESS" : "FAILED"));
-            return isFinal;
+    /*
+        Batch mode, no prompts and no trace:
+            java NFASimulator <nfa-file | re:regex | @list-file | file.dfa> [<input-file> | -] [--out <file>] [--threads <n>]
+            java NFASimulator <nfa-file | re:regex> --compile <file.dfa>
+            java NFASimulator <nfa-file | re:regex> [<input-file> | -] --find [--out <file>]
+        Reads one string per line (stdin if no input file or "-"), writes each string with
+        ACCEPTED / REJECTED (stdout unless --out), and reports throughput on stderr.
+        With @list-file the result column lists which automata accept instead
+        (comma separated numbers as in loadUnion, "-" for none), still one pass per string.
+        --threads 0 uses every core.
+        --compile writes the minimised DFA in the binary format of MappedDfa; a .dfa file is
+        then memory-mapped and matched without building anything.
+        --find treats the input as one stream of any size instead of lines and writes the
+        end position of every match, one per line (see StreamMatcher).
+    */
+    static int batch(String[] args) {
+        String nfaFile = args[0], inFile = "-", outFile = null, compileTo = null;
+        int threads = 1;
+        boolean find = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--out")) outFile = args[++i];
+                else if (args[i].equals("--compile")) compileTo = args[++i];
+                else if (args[i].equals("--threads")) threads = Integer.parseInt(args[++i]);
+                else if (args[i].equals("--find")) find = true;
+                else if (args[i].startsWith("--")) throw new IllegalArgumentException(args[i]);
+                else inFile = args[i];
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: java NFASimulator <nfa-file | re:regex | @list-file | file.dfa> [<input-file> | -] [--out <file>] [--threads <n>]");
+            System.err.println("       java NFASimulator <nfa-file | re:regex> --compile <file.dfa>");
+            System.err.println("       java NFASimulator <nfa-file | re:regex> [<input-file> | -] --find [--out <file>]");
+            return 2;
+        }
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+
+        PrintStream stdout = System.out;
+        System.setOut(System.err); // Load messages must not end up in the results
+        long begin = System.nanoTime();
+        Nfa nfa = null;
+        NfaUnion union = null;
+        MappedDfa mapped = null;
+        if (nfaFile.startsWith("@"))
+            union = loadUnion(nfaFile, new ArrayList<>());
+        else if (nfaFile.endsWith(".dfa"))
+            mapped = loadCompiled(nfaFile);
+        else
+            nfa = load(nfaFile);
+        System.setOut(stdout);
+        if (nfa == null && union == null && mapped == null) return 1;
+
+        if (compileTo != null) {
+            if (nfa == null) {
+                System.err.println("--compile needs an NFA file or re:<regex>");
+                return 2;
+            }
+            try {
+                DfaTable full = Dfa.toTable(nfa, COMPILE_STATE_CAP);
+                DfaTable table = full.minimize();
+                MappedDfa.write(table, Paths.get(compileTo));
+                System.err.printf("DFA states: %d -> minimised: %d, written to %s in %.3f s%n",
+                        full.states, table.states, compileTo, (System.nanoTime() - begin) / 1e9);
+                return 0;
+            } catch (IllegalStateException | IllegalArgumentException | IOException e) {
+                System.err.println("Compile Error: " + e.getMessage());
+                return 1;
+            }
+        }
+
+        if (find) {
+            if (nfa == null) {
+                System.err.println("--find needs an NFA file or re:<regex>");
+                return 2;
+            }
+            return find(nfa, inFile, outFile, begin);
+        }
+
+        BatchMatcher matcher = union != null ? new BatchMatcher(union, DFA_STATE_CAP)
+                : mapped != null ? new BatchMatcher(mapped) : new BatchMatcher(nfa, DFA_STATE_CAP);
+        try (BufferedReader in = new BufferedReader(inFile.equals("-")
+                     ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                     : new FileReader(inFile, StandardCharsets.UTF_8), 1 << 16);
+             BufferedWriter out = new BufferedWriter(outFile == null
+                     ? new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8)
+                     : new FileWriter(outFile, StandardCharsets.UTF_8), 1 << 16)) {
+            matcher.run(in, out, threads);
+        } catch (IOException e) {
+            System.err.println("I/O Error: " + e.getMessage());
+            return 1;
+        }
+        double seconds = Math.max(1e-9, (System.nanoTime() - begin) / 1e9);
+        System.err.printf("%d strings, %d accepted, %.3f s, %.0f strings/s (%s, %d thread%s)%n",
+                matcher.strings, matcher.accepted, seconds, matcher.strings / seconds,
+                matcher.description, threads, threads == 1 ? "" : "s");
+        return 0;
+    }
+
+    // --find: match end positions over the whole input, streamed (a file is memory-mapped)
+    static int find(Nfa nfa, String inFile, String outFile, long begin) {
+        long[] matches = new long[1];
+        try (ReadableByteChannel in = inFile.equals("-") ? Channels.newChannel(System.in) : FileChannel.open(Paths.get(inFile));
+             BufferedWriter out = new BufferedWriter(outFile == null
+                     ? new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8)
+                     : new FileWriter(outFile, StandardCharsets.UTF_8), 1 << 16)) {
+            StreamMatcher matcher = new StreamMatcher(nfa, true, DFA_STATE_CAP, end -> {
+                matches[0]++;
+                try {
+                    out.write(Long.toString(end));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            matcher.feed(in);
+            matcher.finish();
+            out.flush();
+            double seconds = Math.max(1e-9, (System.nanoTime() - begin) / 1e9);
+            System.err.printf("%d matches in %d symbols, %.3f s, %.0f symbols/s (%s)%n",
+                    matches[0], matcher.position(), seconds, matcher.position() / seconds, matcher.description);
+            return 0;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("I/O Error: " + e.getMessage());
+            return 1;
         }
+    }
 
-        char sym = input.charAt(idx);
-        int currIdx = getStateIndex(curr);
-        int symIdx = getSymbolIndex(sym);
+    /*
+        Backtracking trace over the integer model. Epsilon moves are taken through the
+        precomputed closures: a branch may leave from any state in closure(curr), and at
+        the end of the input curr accepts if anything in its closure is final.
+    */
+    static boolean simulate(Nfa nfa, int curr, int[] input, int idx) {
+        String name = nfa.stateNames[curr];
+        if (idx == input.length) {
+            for (int q : nfa.closure[curr]) {
+                if (nfa.isFinal(q)) {
+                    System.out.println("Checking final state [" + name + "]: SUCCESS" + (q != curr ? " (eps to " + nfa.stateNames[q] + ")" : ""));
+                    return true;
+                }
+            }
+            System.out.println("Checking final state [" + name + "]: FAILED");
+            return false;
+        }
 
-        if (currIdx == -1 || symIdx == -1 || transitions[currIdx][symIdx] == null) {
-            System.out.println("DEAD END at [" + curr + "] for symbol '" + sym + "'");
+        int sym = input[idx];
+        if (sym < 0) {
+            System.out.println("DEAD END at [" + name + "]: symbol " + (idx + 1) + " is not in the alphabet");
             return false;
         }
 
-        char[] nextStates = transitions[currIdx][symIdx];
-        for (char next : nextStates) {
-            System.out.println("EXPLORING branch: " + curr + " --" + sym + "--> " + next);
-            if (simulate(next, input, idx + 1))
-                return true;
-            System.out.println("PATH FAILED from [" + next + "]. Backtracking to [" + curr + "]");
+        String symName = nfa.symbolNames[sym];
+        boolean moved = false;
+        for (int from : nfa.closure[curr]) {
+            int[] nextStates = nfa.delta[from][sym];
+            if (nextStates == null) continue;
+            String via = from != curr ? " --eps--> " + nfa.stateNames[from] : "";
+            for (int next : nextStates) {
+                moved = true;
+                System.out.println("EXPLORING branch: " + name + via + " --" + symName + "--> " + nfa.stateNames[next]);
+                if (simulate(nfa, next, input, idx + 1))
+                    return true;
+                System.out.println("PATH FAILED from [" + nfa.stateNames[next] + "]. Backtracking to [" + name + "]");
+            }
+        }
+        if (!moved)
+            System.out.println("DEAD END at [" + name + "] for symbol '" + symName + "'");
+        return false;
+    }
+
+    /*
+        Same trace and branch order as simulate(), but every (state, position) pair that
+        failed once is recorded in a bitset and never explored again, so the work is
+        O(|Q| * n * branching) instead of exponential when branches reconverge.
+        Iterative (explicit stack of one frame per input position), so long inputs cannot
+        overflow the call stack. Prints the accepting path when there is one.
+    */
+    static boolean simulateMemo(Nfa nfa, int[] input) {
+        int len = input.length, n = nfa.stateCount();
+        long[] failed = new long[(int) (((long) n * (len + 1) + 63) >>> 6)]; // bit idx * n + state
+        // Frame d (= input position d): its state, and the next branch to try as
+        // (index into closure[state], index into that state's targets)
+        int[] state = new int[len + 1], from = new int[len + 1], target = new int[len + 1];
+        boolean[] moved = new boolean[len + 1];
+        int top = 0;
+        state[0] = nfa.start;
+        boolean entering = true;
+
+        while (top >= 0) {
+            int curr = state[top];
+            String name = nfa.stateNames[curr];
+            boolean fail = false;
+            int next = -1;
+
+            if (entering) {
+                entering = false;
+                from[top] = target[top] = 0;
+                moved[top] = false;
+                if (top == len) {
+                    int accept = -1;
+                    for (int q : nfa.closure[curr])
+                        if (accept < 0 && nfa.isFinal(q))
+                            accept = q;
+                    System.out.println("Checking final state [" + name + "]: " + (accept >= 0 ? "SUCCESS" : "FAILED")
+                            + (accept >= 0 && accept != curr ? " (eps to " + nfa.stateNames[accept] + ")" : ""));
+                    if (accept >= 0) {
+                        printPath(nfa, input, state, from, accept);
+                        return true;
+                    }
+                    fail = true;
+                } else if (input[top] < 0) {
+                    System.out.println("DEAD END at [" + name + "]: symbol " + (top + 1) + " is not in the alphabet");
+                    fail = true;
+                }
+            }
+
+            if (!fail) {
+                // Next untried branch of this frame
+                int[] cl = nfa.closure[curr];
+                while (from[top] < cl.length) {
+                    int[] targets = nfa.delta[cl[from[top]]][input[top]];
+                    if (targets != null && target[top] < targets.length) {
+                        next = targets[target[top]++];
+                        break;
+                    }
+                    from[top]++;
+                    target[top] = 0;
+                }
+                if (next < 0) {
+                    if (!moved[top])
+                        System.out.println("DEAD END at [" + name + "] for symbol '" + nfa.symbolNames[input[top]] + "'");
+                    fail = true;
+                }
+            }
+
+            if (fail) {
+                long bit = (long) top * n + curr;
+                failed[(int) (bit >>> 6)] |= 1L << bit;
+                top--;
+                if (top >= 0)
+                    System.out.println("PATH FAILED from [" + name + "]. Backtracking to [" + nfa.stateNames[state[top]] + "]");
+                continue;
+            }
+
+            moved[top] = true;
+            int via = nfa.closure[curr][from[top]];
+            System.out.println("EXPLORING branch: " + name + (via != curr ? " --eps--> " + nfa.stateNames[via] : "")
+                    + " --" + nfa.symbolNames[input[top]] + "--> " + nfa.stateNames[next]);
+            long bit = (long) (top + 1) * n + next;
+            if ((failed[(int) (bit >>> 6)] & (1L << bit)) != 0) {
+                System.out.println("SKIPPED [" + nfa.stateNames[next] + "] at position " + (top + 1) + ": already failed from there");
+                continue;
+            }
+            state[++top] = next;
+            entering = true;
         }
         return false;
     }
 
-    static boolean loadNFA(String file) {
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+    // Accepting path of a successful simulateMemo(): the branch each frame is on
+    private static void printPath(Nfa nfa, int[] input, int[] state, int[] from, int accept) {
+        StringBuilder sb = new StringBuilder(nfa.stateNames[nfa.start]);
+        for (int d = 0; d < input.length; d++) {
+            int via = nfa.closure[state[d]][from[d]];
+            if (via != state[d])
+                sb.append(" --eps--> ").append(nfa.stateNames[via]);
+            sb.append(" --").append(nfa.symbolNames[input[d]]).append("--> ").append(nfa.stateNames[state[d + 1]]);
+        }
+        if (accept != state[input.length])
+            sb.append(" --eps--> ").append(nfa.stateNames[accept]);
+        System.out.println("ACCEPTING PATH: " + sb);
+    }
+
+    // Interactive mode for a compiled .dfa file: accept / reject only (no NFA to trace)
+    static void matchCompiled(Scanner sc, String file) {
+        MappedDfa dfa = loadCompiled(file);
+        if (dfa == null)
+            return;
+        System.out.println("\n--- Compiled DFA mapped: " + dfa.states + " states, symbols: " + String.join(", ", dfa.alphabet.names) + " ---");
+        while (true) {
+            System.out.print("\nEnter string to test (or 'exit' to quit): ");
+            String inputString = sc.nextLine();
+            if (inputString.equalsIgnoreCase("exit"))
+                break;
+            System.out.println("\nFINAL RESULT: " + (dfa.accepts(inputString) ? "ACCEPTED " : "REJECTED "));
+        }
+    }
+
+    static MappedDfa loadCompiled(String file) {
+        try {
+            return MappedDfa.map(Paths.get(file));
+        } catch (IOException e) {
+            System.out.println("File Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+        Interactive mode for several automata at once: reports which of them accept each
+        string, in one pass over it (NfaUnion).
+    */
+    static void classify(Scanner sc, String spec) {
+        List<String> specs = new ArrayList<>();
+        NfaUnion union = loadUnion(spec, specs);
+        if (union == null) {
+            System.out.println("Error: Could not load the automata listed in " + spec.substring(1));
+            return;
+        }
+        System.out.println("\n--- " + union.count + " automata loaded, " + union.nfa.stateCount() + " states combined ---");
+        for (int i = 0; i < specs.size(); i++)
+            System.out.println("  " + i + ": " + specs.get(i));
+
+        NfaUnion.Matcher matcher = union.matcher(DFA_STATE_CAP);
+        while (true) {
+            System.out.print("\nEnter string to test (or 'exit' to quit): ");
+            String inputString = sc.nextLine();
+            if (inputString.equalsIgnoreCase("exit"))
+                break;
+            int[] accepted = matcher.matches(inputString);
+            StringBuilder sb = new StringBuilder();
+            for (int i : accepted)
+                sb.append("\n  ").append(i).append(": ").append(specs.get(i));
+            System.out.println("\nACCEPTED BY " + (accepted.length == 0 ? "none" : accepted.length + " of " + union.count + ":" + sb));
+        }
+    }
+
+    // "re:<pattern>" compiles a regex (Thompson construction), anything else is an NFA file; null on error
+    static Nfa load(String spec) {
+        if (!spec.startsWith("re:"))
+            return loadNFA(spec);
+        try {
+            return Regex.compile(spec.substring(3));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Regex Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+        "@<list-file>": one automaton spec (NFA file or re:<pattern>) per line, blank lines
+        and lines starting with # ignored. Fills `specs` with them in order, which is the
+        numbering NfaUnion reports; null on error.
+    */
+    static NfaUnion loadUnion(String spec, List<String> specs) {
+        try (BufferedReader br = new BufferedReader(new FileReader(spec.substring(1), StandardCharsets.UTF_8))) {
             String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#"))
+                    specs.add(line);
+            }
+        } catch (IOException e) {
+            System.out.println("File Error: " + e.getMessage());
+            return null;
+        }
+        Nfa[] parts = new Nfa[specs.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = load(specs.get(i));
+            if (parts[i] == null)
+                return null;
+        }
+        try {
+            return new NfaUnion(parts);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /*
+        File format (names may be several characters, whitespace around them is ignored):
+            states=q0,q1,q2
+            symbols=a,b
+            initialState=q0
+            finalStates=q2
+            q0,a,q0,q1      <- from, symbol, targets...
+            q1,eps,q2       <- epsilon move (also written as the letter epsilon, U+03B5)
+        Target, start and final states missing from "states=" are added as extra states
+        without transitions. Lines from undeclared states or with unknown symbols are
+        skipped; repeated (state, symbol) lines add to the targets.
+    */
+    static Nfa loadNFA(String file) {
+        try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            String[] stateList = null, symbolList = null, finalList = new String[0];
+            String start = null;
             List<String> transitionLines = new ArrayList<>();
 
             while ((line = br.readLine()) != null) {
@@ -91,73 +510,87 @@ public class NFASimulator {
                     continue;
 
                 if (line.startsWith("states=")) {
-                    String val = line.split("=")[1];
-                    String[] parts = val.split(",");
-                    states = new char[parts.length];
-                    for (int i = 0; i < parts.length; i++)
-                        states[i] = parts[i].trim().charAt(0);
+                    stateList = names(line);
                 } else if (line.startsWith("symbols=")) {
-                    String val = line.split("=")[1];
-                    String[] parts = val.split(",");
-                    symbols = new char[parts.length];
-                    for (int i = 0; i < parts.length; i++)
-                        symbols[i] = parts[i].trim().charAt(0);
+                    symbolList = names(line);
                 } else if (line.startsWith("initialState=")) {
-                    startState = line.split("=")[1].trim().charAt(0);
+                    start = line.split("=")[1].trim();
                 } else if (line.startsWith("finalStates=")) {
-                    String val = line.split("=")[1];
-                    String[] parts = val.split(",");
-                    finalStates = new char[parts.length];
-                    for (int i = 0; i < parts.length; i++)
-                        finalStates[i] = parts[i].trim().charAt(0);
+                    finalList = names(line);
                 } else {
                     // If no label, consider it a transition line
                     transitionLines.add(line);
                 }
             }
 
-            // Transitions array initialize (After Metadata load)
-            transitions = new char[states.length][symbols.length][];
+            // Intern names: state / symbol name -> id
+            Map<String, Integer> stateIds = new LinkedHashMap<>();
+            Map<String, Integer> symbolIds = new LinkedHashMap<>();
+            for (String st : stateList)
+                stateIds.putIfAbsent(st, stateIds.size());
+            for (String sym : symbolList)
+                if (!isEpsilon(sym))
+                    symbolIds.putIfAbsent(sym, symbolIds.size());
+            int declared = stateIds.size();
 
+            // (from, symbol or -1 for epsilon) -> target ids
+            Map<Long, List<Integer>> moves = new HashMap<>();
             for (String tl : transitionLines) {
                 String[] parts = tl.split(",");
-                if (parts.length >= 3) {
-                    int sIdx = getStateIndex(parts[0].trim().charAt(0));
-                    int symIdx = getSymbolIndex(parts[1].trim().charAt(0));
-                    if (sIdx != -1 && symIdx != -1) {
-                        char[] dests = new char[parts.length - 2];
-                        for (int i = 2; i < parts.length; i++) {
-                            dests[i - 2] = parts[i].trim().charAt(0);
-                        }
-                        transitions[sIdx][symIdx] = dests;
-                    }
-                }
+                if (parts.length < 3)
+                    continue;
+                Integer from = stateIds.get(parts[0].trim());
+                String symName = parts[1].trim();
+                Integer sym = isEpsilon(symName) ? Integer.valueOf(-1) : symbolIds.get(symName);
+                if (from == null || from >= declared || sym == null)
+                    continue;
+                List<Integer> dests = moves.computeIfAbsent(((long) from << 32) | (sym + 1), x -> new ArrayList<>());
+                for (int i = 2; i < parts.length; i++)
+                    dests.add(stateIds.computeIfAbsent(parts[i].trim(), x -> stateIds.size()));
             }
-            return true;
+            int startId = stateIds.computeIfAbsent(start, x -> stateIds.size());
+            for (String f : finalList)
+                stateIds.computeIfAbsent(f, x -> stateIds.size());
+
+            int n = stateIds.size(), k = symbolIds.size();
+            int[][][] delta = new int[n][k][];
+            int[][] epsilon = new int[n][];
+            for (Map.Entry<Long, List<Integer>> e : moves.entrySet()) {
+                int from = (int) (e.getKey() >>> 32), sym = (int) (e.getKey() & 0xFFFFFFFFL) - 1;
+                int[] dests = e.getValue().stream().distinct().mapToInt(Integer::intValue).toArray();
+                if (sym < 0)
+                    epsilon[from] = dests;
+                else
+                    delta[from][sym] = dests;
+            }
+            boolean[] accepting = new boolean[n];
+            for (String f : finalList)
+                accepting[stateIds.get(f)] = true;
+
+            return new Nfa(stateIds.keySet().toArray(new String[0]), symbolIds.keySet().toArray(new String[0]),
+                    delta, epsilon, startId, accepting);
         } catch (Exception e) {
             System.out.println("File Error: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
-    static int getStateIndex(char st) {
-        for (int i = 0; i < states.length; i++)
-            if (states[i] == st)
-                return i;
-        return -1;
+    // "key=a, b ,c" -> trimmed names
+    private static String[] names(String line) {
+        String[] parts = line.substring(line.indexOf('=') + 1).split(",");
+        for (int i = 0; i < parts.length; i++)
+            parts[i] = parts[i].trim();
+        return parts;
     }
 
-    static int getSymbolIndex(char sym) {
-        for (int i = 0; i < symbols.length; i++)
-            if (symbols[i] == sym)
-                return i;
-        return -1;
+    private static String stateList(Nfa nfa, int[] ids) {
+        StringBuilder sb = new StringBuilder();
+        for (int id : ids)
+            sb.append(sb.length() > 0 ? ", " : "").append(nfa.stateNames[id]);
+        return sb.toString();
     }
 
-    static boolean isFinalState(char st) {
-        for (int i = 0; i < finalStates.length; i++)
-            if (finalStates[i] == st)
-                return true;
-        return false;
+    static boolean isEpsilon(String sym) {
+        return sym.equals("eps") || sym.equals("\u03b5");
     }
 }
\ No newline at end of file
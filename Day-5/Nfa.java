@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/*
+    In-memory NFA: states and symbols are interned 0-based ids, names only for printing.
+    delta[q][a] = successor states of q on symbol a (null = none), epsilon[q] = epsilon moves.
+    Epsilon closures are computed once here; the matchers only see closed successor sets
+    (step / startStates), so they never deal with epsilon moves themselves.
+    How input strings map to symbols (and otherSymbol): see Alphabet.
+*/
+public class Nfa {
+    public final String[] stateNames;
+    public final String[] symbolNames;
+    public final int[][][] delta;
+    public final int[][] epsilon;
+    public final int[][] closure;     // closure[q] = states reachable from q by epsilon moves (q included)
+    public final int start;
+    public final boolean[] accepting;
+    public final int otherSymbol;     // Symbol id for characters outside the alphabet, -1 = none
+    public final Alphabet alphabet;
+
+    private final int[][][] closedDelta;  // Successors followed by their epsilon closure
+    private final int[] startSet;
+    private final HashMap<String, Integer> stateIds = new HashMap<>();
+    private final boolean singleChar;
+
+    private final int words;          // longs per state set
+    private final long[][] succMask;  // Up to 64 states: closed successors of q on a as one bitmask (else null)
+    private final long startMask, acceptMask;
+
+    public Nfa(String[] stateNames, String[] symbolNames, int[][][] delta, int[][] epsilon, int start, boolean[] accepting) {
+        this(stateNames, symbolNames, delta, epsilon, start, accepting, -1);
+    }
+
+    public Nfa(String[] stateNames, String[] symbolNames, int[][][] delta, int[][] epsilon, int start, boolean[] accepting, int otherSymbol) {
+        this.stateNames = stateNames;
+        this.symbolNames = symbolNames;
+        this.delta = delta;
+        this.epsilon = epsilon;
+        this.start = start;
+        this.accepting = accepting;
+        this.otherSymbol = otherSymbol;
+        int n = stateNames.length, k = symbolNames.length;
+
+        for (int q = n - 1; q >= 0; q--) stateIds.put(stateNames[q], q);
+        alphabet = new Alphabet(symbolNames, otherSymbol);
+        singleChar = alphabet.isSingleChar();
+
+        closure = new int[n][];
+        boolean hasEpsilon = false;
+        for (int q = 0; q < n; q++) if (epsilon != null && epsilon[q] != null && epsilon[q].length > 0) hasEpsilon = true;
+        if (hasEpsilon) {
+            int[] stamp = new int[n], stack = new int[n], found = new int[n];
+            for (int q = 0; q < n; q++) {
+                // Iterative DFS over epsilon moves (cycles allowed)
+                int sp = 0, count = 0;
+                stamp[q] = q + 1;
+                stack[sp++] = q;
+                while (sp > 0) {
+                    int u = stack[--sp];
+                    found[count++] = u;
+                    if (epsilon[u] == null) continue;
+                    for (int v : epsilon[u]) {
+                        if (stamp[v] != q + 1) {
+                            stamp[v] = q + 1;
+                            stack[sp++] = v;
+                        }
+                    }
+                }
+                closure[q] = Arrays.copyOf(found, count);
+                Arrays.sort(closure[q]);
+            }
+            closedDelta = new int[n][k][];
+            Arrays.fill(stamp, 0);
+            int mark = 0;
+            for (int q = 0; q < n; q++) {
+                for (int a = 0; a < k; a++) {
+                    if (delta[q][a] == null) continue;
+                    mark++;
+                    int count = 0;
+                    for (int p : delta[q][a]) {
+                        for (int r : closure[p]) {
+                            if (stamp[r] != mark) {
+                                stamp[r] = mark;
+                                found[count++] = r;
+                            }
+                        }
+                    }
+                    closedDelta[q][a] = Arrays.copyOf(found, count);
+                }
+            }
+        } else {
+            for (int q = 0; q < n; q++) closure[q] = new int[] { q };
+            closedDelta = delta;
+        }
+        startSet = closure[start];
+
+        words = (n + 63) >>> 6;
+        long acc = 0, st = 0;
+        if (n <= 64) {
+            succMask = new long[n][k];
+            for (int q = 0; q < n; q++) {
+                if (accepting[q]) acc |= 1L << q;
+                for (int a = 0; a < k; a++) {
+                    if (closedDelta[q][a] != null) for (int p : closedDelta[q][a]) succMask[q][a] |= 1L << p;
+                }
+            }
+            for (int q : startSet) st |= 1L << q;
+        } else {
+            succMask = null;
+        }
+        startMask = st;
+        acceptMask = acc;
+    }
+
+    public int stateCount() {
+        return stateNames.length;
+    }
+
+    public int symbolCount() {
+        return symbolNames.length;
+    }
+
+    // State / symbol id by name, or -1
+    public int stateIndex(String name) {
+        Integer id = stateIds.get(name);
+        return id == null ? -1 : id;
+    }
+
+    public int symbolIndex(String name) {
+        return alphabet.index(name);
+    }
+
+    // Symbol id of a one-character symbol, else otherSymbol (or -1)
+    public int symbolIndex(char c) {
+        return alphabet.index(c);
+    }
+
+    public boolean isFinal(int q) {
+        return accepting[q];
+    }
+
+    public boolean isSingleChar() {
+        return singleChar;
+    }
+
+    // Input string -> symbol ids (-1 for unknown symbols)
+    public int[] tokenize(String input) {
+        return alphabet.tokenize(input);
+    }
+
+    // Epsilon-closed successors of q on a (null = none)
+    public int[] step(int q, int a) {
+        return closedDelta[q][a];
+    }
+
+    // Epsilon closure of the start state
+    public int[] startStates() {
+        return startSet;
+    }
+
+    /*
+        Set-based (Thompson-style) simulation: the set of active states is a bitset and all
+        branches advance together, one pass over the input with no recursion.
+        O(n * |Q|) worst case instead of the exponential backtracking of simulate().
+    */
+    public boolean accepts(String input) {
+        if (!singleChar) {
+            int[] ids = tokenize(input);
+            return accepts(ids, ids.length);
+        }
+        if (succMask != null) {
+            long cur = startMask;
+            for (int i = 0; i < input.length() && cur != 0; i++) {
+                int a = symbolIndex(input.charAt(i));
+                if (a < 0) return false;
+                cur = stepSmall(cur, a);
+            }
+            return (cur & acceptMask) != 0;
+        }
+        long[] cur = startBits(), next = new long[words];
+        for (int i = 0; i < input.length(); i++) {
+            int a = symbolIndex(input.charAt(i));
+            if (a < 0 || !stepBits(cur, next, a)) return false;
+            long[] t = cur; cur = next; next = t;
+        }
+        return acceptsBits(cur);
+    }
+
+    public boolean accepts(int[] input, int len) {
+        if (succMask != null) {
+            long cur = startMask;
+            for (int i = 0; i < len && cur != 0; i++) {
+                if (input[i] < 0) return false;
+                cur = stepSmall(cur, input[i]);
+            }
+            return (cur & acceptMask) != 0;
+        }
+        long[] cur = startBits(), next = new long[words];
+        for (int i = 0; i < len; i++) {
+            if (input[i] < 0 || !stepBits(cur, next, input[i])) return false;
+            long[] t = cur; cur = next; next = t;
+        }
+        return acceptsBits(cur);
+    }
+
+    private long stepSmall(long cur, int a) {
+        long next = 0;
+        for (long bits = cur; bits != 0; bits &= bits - 1) next |= succMask[Long.numberOfTrailingZeros(bits)][a];
+        return next;
+    }
+
+    private long[] startBits() {
+        long[] set = new long[words];
+        for (int q : startSet) set[q >>> 6] |= 1L << q;
+        return set;
+    }
+
+    // next = successors of cur on a; false if that set is empty (no branch left)
+    private boolean stepBits(long[] cur, long[] next, int a) {
+        Arrays.fill(next, 0);
+        boolean any = false;
+        for (int w = 0; w < words; w++) {
+            for (long bits = cur[w]; bits != 0; bits &= bits - 1) {
+                int[] succ = closedDelta[(w << 6) + Long.numberOfTrailingZeros(bits)][a];
+                if (succ == null || succ.length == 0) continue;
+                for (int p : succ) next[p >>> 6] |= 1L << p;
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    private boolean acceptsBits(long[] set) {
+        for (int w = 0; w < words; w++) {
+            for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                if (accepting[(w << 6) + Long.numberOfTrailingZeros(bits)]) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    N automata side by side in one Nfa, so one pass over an input tells which of them accept.
+    States of automaton i are copied with an offset; a new start state has epsilon moves
+    to every automaton's start. Subset construction on this union is the product
+    construction: a DFA state holds the live states of all N automata at once, and
+    owner[] maps its accepting NFA states back to automaton indices.
+
+    Alphabets are merged by symbol name. A character another automaton named, or "<other>",
+    is that automaton's otherSymbol move (or none), exactly as when it runs alone.
+*/
+public class NfaUnion {
+    private static final int[] NONE = new int[0];
+
+    public final Nfa nfa;
+    public final int count;         // Automata
+    private final int[] owner;      // Union state -> automaton index (-1 for the shared start)
+
+    public NfaUnion(Nfa... parts) {
+        count = parts.length;
+        if (count == 0) throw new IllegalArgumentException("no automata to combine");
+        boolean single = parts[0].isSingleChar();
+        for (Nfa p : parts) {
+            if (p.isSingleChar() != single)
+                throw new IllegalArgumentException("cannot combine char-by-char and multi-character symbol alphabets");
+        }
+
+        // Merged alphabet
+        Map<String, Integer> symbolIds = new LinkedHashMap<>();
+        boolean anyOther = false;
+        for (Nfa p : parts) {
+            for (int a = 0; a < p.symbolCount(); a++) {
+                if (a == p.otherSymbol) anyOther = true;
+                else symbolIds.putIfAbsent(p.symbolNames[a], symbolIds.size());
+            }
+        }
+        int other = anyOther ? symbolIds.size() : -1;
+        int k = symbolIds.size() + (anyOther ? 1 : 0);
+        String[] symbolNames = new String[k];
+        for (Map.Entry<String, Integer> e : symbolIds.entrySet()) symbolNames[e.getValue()] = e.getKey();
+        if (anyOther) symbolNames[other] = "<other>";
+
+        int n = 1;
+        for (Nfa p : parts) n += p.stateCount();
+        String[] stateNames = new String[n];
+        int[][][] delta = new int[n][k][];
+        int[][] epsilon = new int[n][];
+        boolean[] accepting = new boolean[n];
+        owner = new int[n];
+        stateNames[0] = "start";
+        owner[0] = -1;
+        epsilon[0] = new int[count];
+
+        int offset = 1;
+        for (int i = 0; i < count; i++) {
+            Nfa p = parts[i];
+            // Union symbol -> this automaton's symbol (-1 = no move)
+            int[] local = new int[k];
+            for (int u = 0; u < k; u++) {
+                int a = u == other ? -1 : p.symbolIndex(symbolNames[u]);
+                local[u] = a >= 0 && a != p.otherSymbol ? a : single ? p.otherSymbol : -1;
+            }
+            for (int q = 0; q < p.stateCount(); q++) {
+                int s = offset + q;
+                stateNames[s] = i + ":" + p.stateNames[q];
+                owner[s] = i;
+                accepting[s] = p.accepting[q];
+                epsilon[s] = shift(p.epsilon == null ? null : p.epsilon[q], offset);
+                for (int u = 0; u < k; u++) {
+                    if (local[u] >= 0) delta[s][u] = shift(p.delta[q][local[u]], offset);
+                }
+            }
+            epsilon[0][i] = offset + p.start;
+            offset += p.stateCount();
+        }
+        nfa = new Nfa(stateNames, symbolNames, delta, epsilon, 0, accepting, other);
+    }
+
+    private static int[] shift(int[] ids, int offset) {
+        if (ids == null) return null;
+        int[] out = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) out[i] = ids[i] + offset;
+        return out;
+    }
+
+    // Automaton of a union state, -1 for the shared start state
+    public int owner(int state) {
+        return owner[state];
+    }
+
+    // One matcher per thread: the lazy DFA inside is not thread-safe
+    public Matcher matcher(int maxStates) {
+        return new Matcher(maxStates);
+    }
+
+    public class Matcher {
+        private final Dfa dfa;
+        private int[][] acceptedBy = new int[16][];     // DFA state -> accepting automata, filled on demand
+        private int flushes;
+        private final int[] stamp = new int[count];
+        private int mark;
+
+        Matcher(int maxStates) {
+            dfa = new Dfa(nfa, maxStates);
+        }
+
+        // Indices of the automata accepting input, ascending (empty if none)
+        public int[] matches(String input) {
+            return acceptedBy(dfa.run(input));
+        }
+
+        public int[] matches(int[] input, int len) {
+            return acceptedBy(dfa.run(input, len));
+        }
+
+        private int[] acceptedBy(int d) {
+            if (!dfa.isAccepting(d)) return NONE;
+            if (dfa.flushes() != flushes) {
+                // DFA state ids were reused
+                flushes = dfa.flushes();
+                Arrays.fill(acceptedBy, null);
+            }
+            if (d >= acceptedBy.length) acceptedBy = Arrays.copyOf(acceptedBy, Math.max(d + 1, acceptedBy.length * 2));
+            if (acceptedBy[d] == null) {
+                long[] set = dfa.stateSet(d);
+                int[] found = new int[count];
+                int size = 0;
+                mark++;
+                for (int w = 0; w < set.length; w++) {
+                    for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                        int q = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        if (nfa.accepting[q] && stamp[owner[q]] != mark) {
+                            stamp[owner[q]] = mark;
+                            found[size++] = owner[q];
+                        }
+                    }
+                }
+                acceptedBy[d] = Arrays.copyOf(found, size);
+                Arrays.sort(acceptedBy[d]);
+            }
+            return acceptedBy[d];
+        }
+    }
+}
@@ -0,0 +1,403 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/*
+    Regex -> Nfa by Thompson's construction, so patterns run on the fast matchers
+    (state sets / DFA) instead of backtracking. A pattern matches the whole string,
+    like Matcher.matches(). Supported syntax:
+        literals and escapes (\. \\ \( \n \t ...), . \d \w \s \D \W \S,
+        classes [abc] [a-z] [^...], groups ( ) (?: ), alternation |,
+        repetition * + ? {m} {m,} {m,n}
+    The alphabet is every character the pattern names plus, if "." or a negated class
+    occurs, one "<other>" symbol for all remaining characters (Nfa.otherSymbol).
+    Throws IllegalArgumentException with the position for anything else.
+*/
+public class Regex {
+    static final int MAX_ALPHABET = 4096;   // Distinct characters named by one pattern
+    static final int MAX_REPEAT = 1000;     // Bound in {m,n}
+    static final int MAX_STATES = 1 << 20;
+
+    private static final int CHARS = 0, CONCAT = 1, ALT = 2, REPEAT = 3;
+
+    // Parse tree node
+    private static final class Node {
+        final int kind;
+        BitSet chars;       // CHARS: the characters (or the excluded ones if negated)
+        boolean negated;
+        Node[] kids;        // CONCAT / ALT / REPEAT (one kid)
+        int min, max;       // REPEAT: max -1 = unbounded
+
+        Node(int kind) {
+            this.kind = kind;
+        }
+    }
+
+    private final String pattern;
+    private int pos;
+
+    // Thompson construction output, grown while building
+    private int states;
+    private int[] edgeFrom = new int[64], edgeSym = new int[64], edgeTo = new int[64];
+    private int edges;
+    private int[] epsFrom = new int[64], epsTo = new int[64];
+    private int epsCount;
+    private int[] symbolOf;             // Named char -> symbol id
+    private char[] alphabet;
+    private int other = -1;
+
+    private Regex(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public static Nfa compile(String pattern) {
+        Regex re = new Regex(pattern);
+        Node root = re.parseAlt();
+        if (re.pos < pattern.length()) throw re.error("unmatched ')'");
+        return re.build(root);
+    }
+
+    // ---- Parser (recursive descent; nesting depth is bounded by the pattern length) ----
+
+    private Node parseAlt() {
+        List<Node> options = new ArrayList<>();
+        options.add(parseConcat());
+        while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+            pos++;
+            options.add(parseConcat());
+        }
+        if (options.size() == 1) return options.get(0);
+        Node n = new Node(ALT);
+        n.kids = options.toArray(new Node[0]);
+        return n;
+    }
+
+    private Node parseConcat() {
+        List<Node> parts = new ArrayList<>();
+        while (pos < pattern.length() && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') parts.add(parseRepeat());
+        if (parts.size() == 1) return parts.get(0);
+        Node n = new Node(CONCAT);
+        n.kids = parts.toArray(new Node[0]);
+        return n;
+    }
+
+    private Node parseRepeat() {
+        Node n = parseAtom();
+        while (pos < pattern.length()) {
+            char c = pattern.charAt(pos);
+            int min, max;
+            if (c == '*') { min = 0; max = -1; pos++; }
+            else if (c == '+') { min = 1; max = -1; pos++; }
+            else if (c == '?') { min = 0; max = 1; pos++; }
+            else if (c == '{') {
+                pos++;
+                min = parseNumber();
+                max = min;
+                if (pos < pattern.length() && pattern.charAt(pos) == ',') {
+                    pos++;
+                    max = pos < pattern.length() && pattern.charAt(pos) == '}' ? -1 : parseNumber();
+                }
+                expect('}');
+                if (max != -1 && max < min) throw error("bad repetition {" + min + "," + max + "}");
+            } else break;
+            Node r = new Node(REPEAT);
+            r.kids = new Node[] { n };
+            r.min = min;
+            r.max = max;
+            n = r;
+        }
+        return n;
+    }
+
+    private Node parseAtom() {
+        char c = pattern.charAt(pos);
+        switch (c) {
+            case '(': {
+                pos += pattern.startsWith("(?:", pos) ? 3 : 1;
+                Node n = parseAlt();
+                expect(')');
+                return n;
+            }
+            case '[':
+                return parseClass();
+            case '.': {
+                pos++;
+                Node n = chars(true);
+                n.chars.set('\n');
+                n.chars.set('\r');
+                n.chars.set('\u0085');
+                n.chars.set('\u2028');
+                n.chars.set('\u2029');
+                return n;
+            }
+            case '\\': {
+                pos++;
+                Node n = chars(false);
+                n.negated = escape(n.chars);
+                return n;
+            }
+            case '*': case '+': case '?': case '{':
+                throw error("nothing to repeat");
+            case '^': case '$':
+                throw error("anchors are implicit, patterns always match the whole string");
+            default: {
+                pos++;
+                Node n = chars(false);
+                n.chars.set(c);
+                return n;
+            }
+        }
+    }
+
+    private Node parseClass() {
+        pos++;
+        Node n = chars(false);
+        if (pos < pattern.length() && pattern.charAt(pos) == '^') {
+            n.negated = true;
+            pos++;
+        }
+        boolean first = true;
+        while (true) {
+            if (pos >= pattern.length()) throw error("unclosed character class");
+            char c = pattern.charAt(pos);
+            if (c == ']' && !first) {
+                pos++;
+                return n;
+            }
+            first = false;
+            pos++;
+            if (c == '\\') {
+                BitSet set = new BitSet();
+                if (escape(set)) throw error("negated escape inside [ ] is not supported");
+                if (set.cardinality() != 1) {
+                    n.chars.or(set);
+                    continue;
+                }
+                c = (char) set.nextSetBit(0);
+            }
+            // Range c-d (a '-' before ']' is a literal)
+            if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                pos++;
+                char d = pattern.charAt(pos++);
+                if (d == '\\') {
+                    BitSet set = new BitSet();
+                    escape(set);
+                    if (set.cardinality() != 1) throw error("bad range end");
+                    d = (char) set.nextSetBit(0);
+                }
+                if (d < c) throw error("bad range " + c + "-" + d);
+                n.chars.set(c, d + 1);
+            } else {
+                n.chars.set(c);
+            }
+        }
+    }
+
+    // After a backslash: adds the escaped set to `set`, returns true if it is negated (\D \W \S)
+    private boolean escape(BitSet set) {
+        if (pos >= pattern.length()) throw error("trailing backslash");
+        char c = pattern.charAt(pos++);
+        switch (c) {
+            case 'd': case 'D':
+                set.set('0', '9' + 1);
+                return c == 'D';
+            case 'w': case 'W':
+                set.set('a', 'z' + 1);
+                set.set('A', 'Z' + 1);
+                set.set('0', '9' + 1);
+                set.set('_');
+                return c == 'W';
+            case 's': case 'S':
+                set.set(' ');
+                set.set('\t', '\r' + 1); // \t \n \u000B \f \r
+                return c == 'S';
+            case 'n': set.set('\n'); return false;
+            case 't': set.set('\t'); return false;
+            case 'r': set.set('\r'); return false;
+            case 'f': set.set('\f'); return false;
+            default:
+                if (Character.isLetterOrDigit(c)) throw error("unsupported escape \\" + c);
+                set.set(c);
+                return false;
+        }
+    }
+
+    private int parseNumber() {
+        int start = pos;
+        while (pos < pattern.length() && Character.isDigit(pattern.charAt(pos))) pos++;
+        if (pos == start || pos - start > 4) throw error("bad repetition count");
+        int value = Integer.parseInt(pattern.substring(start, pos));
+        if (value > MAX_REPEAT) throw error("repetition count over " + MAX_REPEAT);
+        return value;
+    }
+
+    private void expect(char c) {
+        if (pos >= pattern.length() || pattern.charAt(pos) != c) throw error("expected '" + c + "'");
+        pos++;
+    }
+
+    private Node chars(boolean negated) {
+        Node n = new Node(CHARS);
+        n.chars = new BitSet();
+        n.negated = negated;
+        return n;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in " + pattern);
+    }
+
+    // ---- Thompson construction ----
+
+    private Nfa build(Node root) {
+        // Alphabet = every character named anywhere, plus <other> if something matches "anything else"
+        BitSet named = new BitSet();
+        boolean needsOther = collect(root, named);
+        if (named.cardinality() > MAX_ALPHABET) throw new IllegalArgumentException("pattern names more than " + MAX_ALPHABET + " characters: " + pattern);
+        alphabet = new char[named.cardinality()];
+        symbolOf = new int[named.isEmpty() ? 0 : named.length()];
+        Arrays.fill(symbolOf, -1);
+        int k = 0;
+        for (int c = named.nextSetBit(0); c >= 0; c = named.nextSetBit(c + 1)) {
+            alphabet[k] = (char) c;
+            symbolOf[c] = k++;
+        }
+        if (needsOther) other = k++;
+
+        int[] frag = fragment(root);
+        int start = frag[0], accept = frag[1];
+
+        String[] stateNames = new String[states];
+        for (int q = 0; q < states; q++) stateNames[q] = "s" + q;
+        String[] symbolNames = new String[k];
+        for (int a = 0; a < alphabet.length; a++) symbolNames[a] = String.valueOf(alphabet[a]);
+        if (other >= 0) symbolNames[other] = "<other>";
+
+        // Edge lists -> delta[q][a] / epsilon[q]
+        int[][][] delta = new int[states][k][];
+        int[][] count = new int[states][k];
+        for (int e = 0; e < edges; e++) count[edgeFrom[e]][edgeSym[e]]++;
+        for (int e = 0; e < edges; e++) {
+            int q = edgeFrom[e], a = edgeSym[e];
+            if (delta[q][a] == null) delta[q][a] = new int[count[q][a]];
+            delta[q][a][--count[q][a]] = edgeTo[e];
+        }
+        int[][] epsilon = new int[states][];
+        int[] epsOut = new int[states];
+        for (int e = 0; e < epsCount; e++) epsOut[epsFrom[e]]++;
+        for (int e = 0; e < epsCount; e++) {
+            int q = epsFrom[e];
+            if (epsilon[q] == null) epsilon[q] = new int[epsOut[q]];
+            epsilon[q][--epsOut[q]] = epsTo[e];
+        }
+        boolean[] accepting = new boolean[states];
+        accepting[accept] = true;
+        return new Nfa(stateNames, symbolNames, delta, epsilon, start, accepting, other);
+    }
+
+    // Adds all named characters to `named`; true if some node also matches unnamed ones
+    private static boolean collect(Node n, BitSet named) {
+        if (n.kind == CHARS) {
+            named.or(n.chars);
+            return n.negated;
+        }
+        boolean other = false;
+        if (n.kids != null) for (Node kid : n.kids) other |= collect(kid, named);
+        return other;
+    }
+
+    // {start, accept} of a new sub-automaton for n; accept has no outgoing moves yet
+    private int[] fragment(Node n) {
+        switch (n.kind) {
+            case CHARS: {
+                int s = newState(), e = newState();
+                if (n.negated) {
+                    for (int a = 0; a < alphabet.length; a++) if (!n.chars.get(alphabet[a])) edge(s, a, e);
+                    edge(s, other, e);
+                } else {
+                    for (int c = n.chars.nextSetBit(0); c >= 0; c = n.chars.nextSetBit(c + 1)) edge(s, symbolOf[c], e);
+                }
+                return new int[] { s, e };
+            }
+            case CONCAT: {
+                if (n.kids.length == 0) {
+                    int s = newState(), e = newState();
+                    eps(s, e);
+                    return new int[] { s, e };
+                }
+                int[] first = fragment(n.kids[0]);
+                int end = first[1];
+                for (int i = 1; i < n.kids.length; i++) {
+                    int[] f = fragment(n.kids[i]);
+                    eps(end, f[0]);
+                    end = f[1];
+                }
+                return new int[] { first[0], end };
+            }
+            case ALT: {
+                int s = newState(), e = newState();
+                for (Node kid : n.kids) {
+                    int[] f = fragment(kid);
+                    eps(s, f[0]);
+                    eps(f[1], e);
+                }
+                return new int[] { s, e };
+            }
+            default: {
+                // x{m,n} = m copies of x, then x* or (n - m) optional copies
+                Node x = n.kids[0];
+                int s = newState(), end = s;
+                for (int i = 0; i < n.min; i++) {
+                    int[] f = fragment(x);
+                    eps(end, f[0]);
+                    end = f[1];
+                }
+                if (n.max == -1) {
+                    int[] f = fragment(x);
+                    int e = newState();
+                    eps(end, f[0]);
+                    eps(end, e);
+                    eps(f[1], f[0]);
+                    eps(f[1], e);
+                    end = e;
+                } else {
+                    for (int i = n.min; i < n.max; i++) {
+                        int[] f = fragment(x);
+                        int e = newState();
+                        eps(end, f[0]);
+                        eps(end, e);
+                        eps(f[1], e);
+                        end = e;
+                    }
+                }
+                return new int[] { s, end };
+            }
+        }
+    }
+
+    private int newState() {
+        if (states == MAX_STATES) throw new IllegalArgumentException("pattern needs more than " + MAX_STATES + " states: " + pattern);
+        return states++;
+    }
+
+    private void edge(int from, int symbol, int to) {
+        if (edges == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edges * 2);
+            edgeSym = Arrays.copyOf(edgeSym, edges * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edges * 2);
+        }
+        edgeFrom[edges] = from;
+        edgeSym[edges] = symbol;
+        edgeTo[edges++] = to;
+    }
+
+    private void eps(int from, int to) {
+        if (epsCount == epsFrom.length) {
+            epsFrom = Arrays.copyOf(epsFrom, epsCount * 2);
+            epsTo = Arrays.copyOf(epsTo, epsCount * 2);
+        }
+        epsFrom[epsCount] = from;
+        epsTo[epsCount++] = to;
+    }
+}
@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+    Push-style matching for inputs that never exist as one String: the input arrives as
+    CharBuffer / ByteBuffer (UTF-8) chunks and only the current DFA state (= the NFA state
+    set) is kept between them, plus at most one partial UTF-8 sequence or symbol name cut
+    by a chunk boundary. The DFA is the minimised table when it fits in maxStates, else
+    the lazy Dfa (as in BatchMatcher); one matcher per stream and thread. feed(ReadableByteChannel) reads a whole channel; a FileChannel
+    is memory-mapped window by window, so file bytes are never copied onto the heap.
+
+    Positions count input symbols: chars (UTF-16 units, not bytes) for a char-by-char
+    alphabet, whitespace separated names otherwise.
+    Anchored: the listener gets every position p > 0 where input[0, p) is accepted, and
+    finish() tells whether the whole input is; once nothing can accept, the rest is skipped.
+    Search: an extra start state loops on every symbol, so the listener gets every position
+    p > 0 where some match of the automaton ends (like find(), but with end positions only).
+    A character or name outside the alphabet cannot be part of a match: anchored it
+    rejects, searching it restarts from the start state.
+*/
+public class StreamMatcher {
+    static final int WINDOW = 1 << 26;      // Bytes of a FileChannel mapped at once
+    private static final int BUFFER = 1 << 16;
+
+    public interface Listener {
+        void match(long end);               // Match ending after `end` symbols
+    }
+
+    public final boolean search;
+    public final String description;
+    private final Alphabet alphabet;
+    private final int[] ascii = new int[128];   // Char below 128 -> symbol id (Alphabet.index)
+    private final Listener listener;        // null = only track acceptance
+
+    private final int k;
+    private final int[] next;               // Minimised table, null = lazy dfa
+    private final boolean[] accepting;
+    private final int start, deadState;     // Table states; deadState -1 if there is none
+    private final Dfa dfa;
+
+    private int d;                          // Current DFA state, Dfa.DEAD once anchored input rejects
+    private long position;
+    private boolean finished;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer carry = ByteBuffer.allocate(8);       // Incomplete UTF-8 sequence at a chunk end
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER);  // Decoded bytes
+    private final char[] copy = new char[BUFFER];                  // Chunks without a backing array
+    private final StringBuilder token = new StringBuilder();       // Multi-char alphabets: name cut by a chunk end
+
+    public StreamMatcher(Nfa nfa, boolean search, int maxStates, Listener listener) {
+        this.search = search;
+        this.alphabet = nfa.alphabet;
+        this.listener = listener;
+        for (char c = 0; c < 128; c++) ascii[c] = alphabet.index(c);
+        k = nfa.symbolCount();
+        Nfa automaton = search ? searching(nfa) : nfa;
+        DfaTable table = null;
+        try {
+            table = Dfa.toTable(automaton, maxStates).minimize();
+        } catch (IllegalStateException e) {
+            // Lazy DFA below
+        }
+        if (table != null) {
+            next = table.next;
+            accepting = table.accepting;
+            start = table.start;
+            deadState = table.deadState();
+            dfa = null;
+            description = "minimised DFA, " + table.states + " states";
+        } else {
+            next = null;
+            accepting = null;
+            start = deadState = -1;
+            dfa = new Dfa(automaton, maxStates);
+            description = "lazy DFA (more than " + maxStates + " states)";
+        }
+        reset();
+    }
+
+    // nfa with a new start state that loops on every symbol and has an epsilon move to the old start
+    private static Nfa searching(Nfa nfa) {
+        int n = nfa.stateCount(), k = nfa.symbolCount();
+        String[] stateNames = Arrays.copyOf(nfa.stateNames, n + 1);
+        int[][][] delta = Arrays.copyOf(nfa.delta, n + 1);
+        int[][] epsilon = new int[n + 1][];
+        if (nfa.epsilon != null) System.arraycopy(nfa.epsilon, 0, epsilon, 0, n);
+        boolean[] accepting = Arrays.copyOf(nfa.accepting, n + 1);
+        stateNames[n] = "<search>";
+        delta[n] = new int[k][];
+        for (int a = 0; a < k; a++) delta[n][a] = new int[] { n };
+        epsilon[n] = new int[] { nfa.start };
+        return new Nfa(stateNames, nfa.symbolNames, delta, epsilon, n, accepting, nfa.otherSymbol);
+    }
+
+    // Back to the start of a new input
+    public void reset() {
+        d = start();
+        position = 0;
+        finished = false;
+        decoder.reset();
+        carry.clear();
+        token.setLength(0);
+    }
+
+    public long position() {
+        return position;
+    }
+
+    // Input so far accepted (anchored), or a match ends here (search)
+    public boolean isAccepting() {
+        return isAccepting(d);
+    }
+
+    private int start() {
+        if (next == null) return dfa.start();
+        return start == deadState ? Dfa.DEAD : start;
+    }
+
+    private boolean isAccepting(int d) {
+        return next != null ? d >= 0 && accepting[d] : dfa.isAccepting(d);
+    }
+
+    // Anchored and no continuation of the input can be accepted any more
+    public boolean isDead() {
+        return d == Dfa.DEAD;
+    }
+
+    // Consumes chunk (position = limit afterwards)
+    public void feed(CharBuffer chunk) {
+        if (finished) throw new IllegalStateException("feed after finish, reset first");
+        if (!alphabet.isSingleChar()) {
+            feedTokens(chunk);
+            return;
+        }
+        if (chunk.hasArray()) {
+            int off = chunk.arrayOffset();
+            feedChars(chunk.array(), off + chunk.position(), off + chunk.limit());
+            chunk.position(chunk.limit());
+            return;
+        }
+        while (chunk.hasRemaining()) {
+            // Direct buffer or String: bulk copy, then the array loop
+            int n = Math.min(chunk.remaining(), copy.length);
+            chunk.get(copy, 0, n);
+            feedChars(copy, 0, n);
+        }
+    }
+
+    public void feed(CharSequence chunk) {
+        feed(CharBuffer.wrap(chunk));
+    }
+
+    // Table fast path: one array lookup per char, the listener only on accepting states
+    private void feedChars(char[] a, int from, int to) {
+        if (next == null) {
+            for (int i = from; i < to; i++) {
+                if (d == Dfa.DEAD) {
+                    position += to - i;
+                    return;
+                }
+                symbol(alphabet.index(a[i]));
+            }
+            return;
+        }
+        int d = this.d;
+        long base = position - from;
+        for (int i = from; i < to; i++) {
+            if (d == Dfa.DEAD) {
+                i = to;
+                break;
+            }
+            char c = a[i];
+            int sym = c < 128 ? ascii[c] : alphabet.index(c);
+            if (sym < 0) {
+                this.d = d;
+                position = base + i;
+                symbol(sym);
+                d = this.d;
+                continue;
+            }
+            d = next[d * k + sym];
+            if (d == deadState) d = Dfa.DEAD;
+            else if (accepting[d] && listener != null) listener.match(base + i + 1);
+        }
+        this.d = d;
+        position = base + to;
+    }
+
+    private void feedTokens(CharBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            char c = chunk.get();
+            if (!Character.isWhitespace(c)) token.append(c);
+            else if (token.length() > 0) endToken();
+        }
+    }
+
+    private void endToken() {
+        if (d != Dfa.DEAD) symbol(alphabet.index(token.toString()));
+        else position++;
+        token.setLength(0);
+    }
+
+    private void symbol(int a) {
+        position++;
+        if (a < 0) d = search ? start() : Dfa.DEAD;
+        else if (next == null) d = dfa.step(d, a);
+        else if ((d = next[d * k + a]) == deadState) d = Dfa.DEAD;
+        if (listener != null && isAccepting(d)) listener.match(position);
+    }
+
+    // UTF-8 bytes; a sequence cut at the end of chunk is completed by the next one
+    public void feed(ByteBuffer chunk) {
+        if (finished) throw new IllegalStateException("feed after finish, reset first");
+        while (carry.position() > 0 && chunk.hasRemaining()) {
+            carry.put(chunk.get());
+            carry.flip();
+            decode(carry, false);
+            carry.compact();
+        }
+        if (carry.position() > 0) return;
+        decode(chunk, false);
+        carry.put(chunk);   // At most 3 bytes of an incomplete sequence
+    }
+
+    private void decode(ByteBuffer in, boolean end) {
+        while (true) {
+            CoderResult r = decoder.decode(in, chars, end);
+            chars.flip();
+            feed(chars);
+            chars.clear();
+            if (r.isUnderflow()) return;
+        }
+    }
+
+    /*
+        Whole channel, from its current position to the end. A FileChannel is mapped in
+        windows of WINDOW bytes (zero-copy, the OS pages it in), anything else is read
+        through one direct buffer.
+    */
+    public void feed(ReadableByteChannel ch) throws IOException {
+        if (ch instanceof FileChannel) {
+            FileChannel fc = (FileChannel) ch;
+            long size = fc.size();
+            for (long pos = fc.position(); pos < size; pos += WINDOW) {
+                feed(fc.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos)));
+            }
+            fc.position(size);
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+        while (ch.read(buf) >= 0) {
+            buf.flip();
+            feed(buf);
+            buf.clear();
+        }
+    }
+
+    // End of input: flushes a cut UTF-8 sequence or symbol name; anchored, whether the input is accepted
+    public boolean finish() {
+        if (!finished) {
+            carry.flip();
+            decode(carry, true);
+            carry.clear();
+            decoder.flush(chars);
+            chars.flip();
+            feed(chars);
+            chars.clear();
+            if (token.length() > 0) endToken();
+            finished = true;
+        }
+        return isAccepting();
+    }
+}